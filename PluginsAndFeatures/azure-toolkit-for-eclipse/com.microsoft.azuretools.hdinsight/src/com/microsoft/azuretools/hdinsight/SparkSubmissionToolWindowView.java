@@ -224,6 +224,27 @@ public class SparkSubmissionToolWindowView extends ViewPart {
         setInfo(info, false);
     }
 
+    /**
+     * Append all the infos and re-render the window only once.
+     */
+    public synchronized void setInfo(List<String> infos, boolean isCleanable) {
+        if (infos.isEmpty()) {
+            return;
+        }
+
+        for (String info : infos) {
+            if (isCleanable) {
+                ++cleanableMessageCounter;
+                adjustCleanableMessage();
+                cachedInfo.add(new CleanableTextElement(info, MessageInfoType.Info));
+            } else {
+                cachedInfo.add(new TextElement(info, MessageInfoType.Info));
+            }
+        }
+
+        setToolWindowText(parserHtmlElementList(cachedInfo));
+    }
+
     private static final int MAX_CLEANABLE_SIZE = 400;
     private static final int DELETE_SIZE = 100;
     private int cleanableMessageCounter = 0;
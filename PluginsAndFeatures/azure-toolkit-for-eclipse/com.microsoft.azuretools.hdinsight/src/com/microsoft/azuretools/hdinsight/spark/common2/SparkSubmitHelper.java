@@ -16,6 +16,7 @@ import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
@@ -25,24 +26,21 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.google.common.base.Joiner;
-import com.google.common.reflect.TypeToken;
-import com.google.gson.Gson;
 import com.jcraft.jsch.ChannelSftp;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
+import com.microsoft.azure.hdinsight.common.JobStatusManager;
 import com.microsoft.azure.hdinsight.common.StreamUtil;
 import com.microsoft.azure.hdinsight.sdk.cluster.EmulatorClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
-import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
 import com.microsoft.azure.hdinsight.sdk.storage.HDStorageAccount;
 import com.microsoft.azure.hdinsight.sdk.storage.IHDIStorageAccount;
 import com.microsoft.azure.hdinsight.sdk.storage.StorageAccountType;
 import com.microsoft.azure.hdinsight.spark.common.SparkBatchSubmission;
-import com.microsoft.azure.hdinsight.spark.common.SparkJobLog;
-import com.microsoft.azure.hdinsight.spark.common.SparkSubmitResponse;
+import com.microsoft.azure.hdinsight.spark.common.LivyLogTailer;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
@@ -60,14 +58,10 @@ import com.microsoft.azuretools.core.utils.Messages;
 public class SparkSubmitHelper {
     private static SparkSubmitHelper ourInstance = new SparkSubmitHelper();
 
-    private static final int MAX_INTERVAL_TIME = 5000;
-    private static final int MIN_INTERVAL_TIME = 1000;
-    private static final int INC_TIME = 100;
-
     private static final String APPLICATION_ID_PATTERN = "Application report for ([^ ]*) \\(state: ACCEPTED\\)";
     public static final String HELP_LINK = "http://go.microsoft.com/fwlink/?LinkID=722349&clcid=0x409";
 
-    private SparkJobLog sparkJobLog;
+    private List<String> jobLog;
 
     public static SparkSubmitHelper getInstance() {
         return ourInstance;
@@ -79,7 +73,7 @@ public class SparkSubmitHelper {
     private String JobLogFolderName = "SparkJobLog";
 
     public String writeLogToLocalFile(/* @NotNull Project project */) throws IOException {
-        if (sparkJobLog == null) {
+        if (jobLog == null) {
             return null;
         }
 
@@ -101,7 +95,7 @@ public class SparkSubmitHelper {
 
             logFileWrite = new FileWriter(fullFileName);
             bufferedWriter = new BufferedWriter(logFileWrite);
-            for (String str : sparkJobLog.getLog()) {
+            for (String str : jobLog) {
                 bufferedWriter.write(str);
                 bufferedWriter.newLine();
             }
@@ -121,53 +115,23 @@ public class SparkSubmitHelper {
 
     public void printRunningLogStreamingly(/* Project project, */ int id, IClusterDetail clusterDetail,
             Map<String, String> postEventProperty) throws IOException {
+        final JobStatusManager jobStatusManager = HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager();
+        jobLog = new ArrayList<>();
+        final LivyLogTailer tailer = new LivyLogTailer(SparkBatchSubmission.getInstance(),
+                clusterDetail.getConnectionUrl() + "/livy/batches", id, this::onJobLog);
+        // wake up the tailer right away when the job is killed
+        final Runnable onKilled = tailer::cancel;
+        jobStatusManager.addJobKilledListener(onKilled);
         try {
-            boolean isFailedJob = false;
-            boolean isKilledJob = false;
+            if (jobStatusManager.isJobKilled()) {
+                tailer.cancel();
+            }
 
-            int from_index = 0;
-            int pre_index;
-            int times = 0;
             HDInsightUtil.getSparkSubmissionToolWindowView()
                     .setInfo("======================Begin printing out spark job log.=======================");
-            while (true) {
-                pre_index = from_index;
-                if (HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().isJobKilled()) {
-                    isKilledJob = true;
-                    break;
-                }
-
-                from_index = printoutJobLog(/* project, */id, from_index, clusterDetail);
-                HttpResponse statusHttpResponse = SparkBatchSubmission.getInstance()
-                        .getBatchSparkJobStatus(clusterDetail.getConnectionUrl() + "/livy/batches", id);
-
-                SparkSubmitResponse status = new Gson().fromJson(statusHttpResponse.getMessage(),
-                        new TypeToken<SparkSubmitResponse>() {
-                        }.getType());
-
-                // only the lines of the log are same between two http requests,
-                // we try to get the job status
-                if (from_index == pre_index) {
-                    String finalStatus = status.getState().toLowerCase();
-                    if (finalStatus.equals("error") || finalStatus.equals("success") || finalStatus.equals("dead")) {
-                        if (finalStatus.equals("error") || finalStatus.equals("dead")) {
-                            isFailedJob = true;
-                        }
-
-                        if (!HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().isJobKilled()) {
-                            printoutJobLog(id, from_index, clusterDetail);
-                            HDInsightUtil.getSparkSubmissionToolWindowView().setInfo(
-                                    "======================Finish printing out spark job log.=======================");
-                        } else {
-                            isKilledJob = true;
-                        }
-                        break;
-                    }
-                }
-
-                Thread.sleep(getIntervalTime(times));
-                times++;
-            }
+            final String finalState = tailer.tail();
+            final boolean isKilledJob = finalState == null || jobStatusManager.isJobKilled();
+            final boolean isFailedJob = "error".equals(finalState) || "dead".equals(finalState);
 
             if (isKilledJob) {
                 postEventProperty.put("IsKilled", "true");
@@ -177,16 +141,12 @@ public class SparkSubmitHelper {
                 return;
             }
 
+            HDInsightUtil.getSparkSubmissionToolWindowView().setInfo(
+                    "======================Finish printing out spark job log.=======================");
             if (isFailedJob) {
                 postEventProperty.put("IsRunningSucceed", "false");
-                HttpResponse httpResponse = SparkBatchSubmission.getInstance()
-                        .getBatchJobFullLog(clusterDetail.getConnectionUrl() + "/livy/batches", id);
-                SparkSubmitResponse submitStatus = new Gson().fromJson(httpResponse.getMessage(),
-                        new TypeToken<SparkSubmitResponse>() {
-                        }.getType());
-                if (submitStatus != null && submitStatus.getLog() != null && submitStatus.getLog().size() > 0) {
-                    List<String> logs = submitStatus.getLog();
-                    postEventProperty.put("SubmitFailedReason", truncateTelemetryMessage(logs.get(logs.size() - 1)));
+                if (!jobLog.isEmpty()) {
+                    postEventProperty.put("SubmitFailedReason", truncateTelemetryMessage(jobLog.get(jobLog.size() - 1)));
                 }
 
                 HDInsightUtil.getSparkSubmissionToolWindowView().setError("Error : Your submitted job run failed");
@@ -200,7 +160,7 @@ public class SparkSubmitHelper {
                     Activator.getDefault().getBundle().getVersion().toString(), postEventProperty);
             EventUtil.logEvent(EventType.info, HDINSIGHT, Messages.SparkSubmissionButtonClickEvent, null);
         } catch (Exception e) {
-            if (HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().isJobKilled() == false) {
+            if (jobStatusManager.isJobKilled() == false) {
                 HDInsightUtil.getSparkSubmissionToolWindowView()
                         .setError("Error : Failed to getting running log. Exception : " + e.toString());
 
@@ -211,6 +171,8 @@ public class SparkSubmitHelper {
             AppInsightsClient.create(Messages.SparkSubmissionButtonClickEvent,
                     Activator.getDefault().getBundle().getVersion().toString(), postEventProperty);
             EventUtil.logEvent(EventType.info, HDINSIGHT, Messages.SparkSubmissionButtonClickEvent, null);
+        } finally {
+            jobStatusManager.removeJobKilledListener(onKilled);
         }
     }
 
@@ -267,35 +229,26 @@ public class SparkSubmitHelper {
         return len < 50 ? message : message.substring(0, 50);
     }
 
-    private int printoutJobLog(/* Project project, */ int id, int from_index, IClusterDetail clusterDetail)
-            throws IOException {
-        HttpResponse httpResponse = SparkBatchSubmission.getInstance()
-                .getBatchJobFullLog(clusterDetail.getConnectionUrl() + "/livy/batches", id);
-        sparkJobLog = new Gson().fromJson(httpResponse.getMessage(), new TypeToken<SparkJobLog>() {
-        }.getType());
+    private void onJobLog(List<String> lines) {
+        jobLog.addAll(lines);
 
-        if (!HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().isApplicationGenerated()) {
-            String sparkLogs = Joiner.on("").join(sparkJobLog.getLog());
-            String applicationId = getApplicationIdFromYarnLog(sparkLogs);
+        final JobStatusManager jobStatusManager = HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager();
+        if (!jobStatusManager.isApplicationGenerated()) {
+            String applicationId = getApplicationIdFromYarnLog(Joiner.on("").join(lines));
             if (applicationId != null) {
                 HDInsightUtil.getSparkSubmissionToolWindowView().setBrowserButtonState(true);
-                HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().setApplicationIdGenerated();
-                HDInsightUtil.getSparkSubmissionToolWindowView().getJobStatusManager().setApplicationId(applicationId);
+                jobStatusManager.setApplicationIdGenerated();
+                jobStatusManager.setApplicationId(applicationId);
             }
         }
 
-        int counter = 0;
-        if (sparkJobLog.getLog().size() > 0) {
-            for (String line : sparkJobLog.getLog()) {
-                if (counter >= from_index && !StringHelper.isNullOrWhiteSpace(line)) {
-                    HDInsightUtil.getSparkSubmissionToolWindowView().setInfo(line, true);
-                }
-
-                counter++;
+        final List<String> nonBlankLines = new ArrayList<>();
+        for (String line : lines) {
+            if (!StringHelper.isNullOrWhiteSpace(line)) {
+                nonBlankLines.add(line);
             }
         }
-
-        return sparkJobLog.getTotal();
+        HDInsightUtil.getSparkSubmissionToolWindowView().setInfo(nonBlankLines, true);
     }
 
     private BlobContainer getSparkClusterDefaultContainer(ClientStorageAccount storageAccount,
@@ -311,11 +264,6 @@ public class SparkSubmitHelper {
         return null;
     }
 
-    private int getIntervalTime(int times) {
-        int interval = MIN_INTERVAL_TIME + times * INC_TIME;
-        return interval > MAX_INTERVAL_TIME ? MAX_INTERVAL_TIME : interval;
-    }
-
     private String getApplicationIdFromYarnLog(String yarnLog) {
         Pattern r = Pattern.compile(APPLICATION_ID_PATTERN);
         Matcher m = r.matcher(yarnLog);
@@ -10,6 +10,7 @@ import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.*;
 import com.github.dockerjava.api.exception.DockerException;
+import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.*;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientBuilder;
@@ -22,6 +23,7 @@ import com.intellij.openapi.util.io.FileUtil;
 import com.microsoft.azure.toolkit.intellij.container.model.DockerHost;
 import com.microsoft.azure.toolkit.intellij.container.model.DockerImage;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.containerregistry.Tag;
 import org.apache.commons.lang3.ArrayUtils;
@@ -30,12 +32,17 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.ServerSocket;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -43,11 +50,19 @@ import java.util.stream.Stream;
 
 import static com.microsoft.azure.toolkit.intellij.container.model.DockerHost.DEFAULT_WINDOWS_HOST;
 
+/**
+ * clients are shared per docker host/TLS/cert path (see {@link #from(String, boolean, String)}), so the underlying http
+ * connections are reused across operations. a successful ping is trusted for {@link #HEALTH_CHECK_TTL_MS}, operations
+ * within that window don't ping the host again.
+ */
 public class AzureDockerClient {
     public static final Pattern PORT_PATTERN = Pattern.compile("EXPOSE\\s+(\\d+).*");
     public static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(5);
+    private static final long HEALTH_CHECK_TTL_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final Map<String, AzureDockerClient> CLIENTS = new ConcurrentHashMap<>();
     private final DefaultDockerClientConfig config;
     private final DockerClient client;
+    private volatile long lastHealthyAt = 0;
 
     private static AzureDockerClient DEFAULT = null;
 
@@ -80,7 +95,8 @@ public class AzureDockerClient {
     }
 
     public static AzureDockerClient from(String dockerHost, boolean tlsEnabled, String certPath) {
-        return new AzureDockerClient(dockerHost, tlsEnabled, certPath);
+        final String key = String.format("%s|%s|%s", dockerHost, tlsEnabled, tlsEnabled ? certPath : "");
+        return CLIENTS.computeIfAbsent(key, k -> new AzureDockerClient(dockerHost, tlsEnabled, certPath));
     }
 
     public static synchronized AzureDockerClient getDefault() {
@@ -92,7 +108,7 @@ public class AzureDockerClient {
 
     @AzureOperation(name = "boundary/docker.create_container.image", params = {"imageNameWithTag"})
     public String createContainer(@Nonnull String imageNameWithTag, @Nullable Integer... ports) {
-        this.ping();
+        this.ensureHealthy();
         final List<Integer> exposedPortsOfImage = getExposedPortsOfImage(this, imageNameWithTag);
         final List<PortBinding> portBindings = Stream.concat(exposedPortsOfImage.stream(), ports == null ? Stream.empty() : Arrays.stream(ports)).distinct()
                 .map(p -> new PortBinding(Ports.Binding.bindPort(findFreePort()), new ExposedPort(p))).collect(Collectors.toList());
@@ -106,35 +122,56 @@ public class AzureDockerClient {
 
     @AzureOperation(name = "boundary/docker.run_container.container", params = {"containerId"})
     public Container runContainer(@Nonnull String containerId) {
-        this.ping();
+        this.ensureHealthy();
         this.client.startContainerCmd(containerId).exec();
-        final List<Container> containers = this.client.listContainersCmd().exec();
+        final List<Container> containers = this.client.listContainersCmd().withIdFilter(Collections.singletonList(containerId)).exec();
         return containers.stream().filter(item -> item.getId().equals(containerId)).findFirst()
             .orElseThrow(() -> new DockerException("Error in starting container.", 404));
     }
 
     @AzureOperation(name = "boundary/docker.stop_container.container", params = {"containerId"})
     public void stopContainer(@Nonnull String containerId) {
-        this.ping();
+        this.ensureHealthy();
         this.client.stopContainerCmd(containerId).exec();
         this.client.removeContainerCmd(containerId).exec();
     }
 
-    @AzureOperation(name = "boundary/docker.build_image.image|file", params = {"imageNameWithTag", "dockerFile"})
     public void buildImage(String imageNameWithTag, @Nonnull File dockerFile, File baseDir, @Nullable BuildImageResultCallback callback) {
-        this.ping();
+        buildImage(imageNameWithTag, dockerFile, baseDir, callback, message -> AzureMessager.getMessager().info(message));
+    }
+
+    /**
+     * build the image with the minimal build context (see {@link DockerBuildContext}), which is packaged only if changed.
+     *
+     * @param reporter receives the context size and packaging time, and a warning if the whole base directory is sent
+     */
+    @AzureOperation(name = "boundary/docker.build_image.image|file", params = {"imageNameWithTag", "dockerFile"})
+    public void buildImage(String imageNameWithTag, @Nonnull File dockerFile, File baseDir, @Nullable BuildImageResultCallback callback,
+                           @Nonnull Consumer<String> reporter) {
+        this.ensureHealthy();
         baseDir = Optional.ofNullable(baseDir).orElseGet(dockerFile::getParentFile);
-        final String imageId = this.client.buildImageCmd()
-            .withDockerfile(dockerFile)
-            .withBaseDirectory(baseDir)
-            .withTags(Set.of(imageNameWithTag))
-            .exec(Optional.ofNullable(callback).orElseGet(BuildImageResultCallback::new)).awaitImageId();
+        final DockerBuildContext context;
+        try {
+            context = new DockerBuildContext(dockerFile, baseDir).prepare();
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to package docker build context of \"%s\"", baseDir), e);
+        }
+        reporter.accept(context.getSummary());
+        Optional.ofNullable(context.getWarning()).ifPresent(reporter);
+        try (final InputStream tar = new FileInputStream(context.getTarFile())) {
+            this.client.buildImageCmd(tar)
+                .withDockerfilePath(context.getDockerFilePath())
+                .withTags(Set.of(imageNameWithTag))
+                .exec(Optional.ofNullable(callback).orElseGet(BuildImageResultCallback::new)).awaitImageId();
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to read docker build context \"%s\"", context.getTarFile()), e);
+        }
     }
 
     @AzureOperation(name = "boundary/docker.push_image.image|registry", params = {"targetImageName", "registryUrl"})
     public void pushImage(@Nonnull String registryUrl, String username, String password, @Nonnull String targetImageName, @Nullable ResultCallback.Adapter<PushResponseItem> callback)
         throws InterruptedException {
-        this.ping();
+        this.ensureHealthy();
         final AuthConfig authConfig = new AuthConfig().withUsername(username).withPassword(password).withRegistryAddress(registryUrl);
         final PushImageCmd cmd = this.client.pushImageCmd(targetImageName).withAuthConfig(authConfig);
         cmd.exec(Optional.ofNullable(callback).orElseGet(ResultCallback.Adapter::new)).awaitCompletion();
@@ -143,7 +180,7 @@ public class AzureDockerClient {
     @AzureOperation(name = "boundary/docker.pull_image.image|registry", params = {"repository", "registryUrl"})
     public void pullImage(@Nonnull String registryUrl, String username, String password, @Nonnull String repository, @Nonnull String tag)
         throws InterruptedException {
-        this.ping();
+        this.ensureHealthy();
         final AuthConfig authConfig = new AuthConfig().withUsername(username).withPassword(password).withRegistryAddress(registryUrl);
         final String fullRepositoryName = String.format("%s/%s", registryUrl, repository);
         final PullImageCmd cmd = this.client.pullImageCmd(fullRepositoryName).withRegistry(registryUrl).withTag(tag).withAuthConfig(authConfig);
@@ -152,35 +189,47 @@ public class AzureDockerClient {
 
     @AzureOperation(name = "boundary/docker.inspect_image.image", params = {"imageId"})
     public InspectImageResponse inspectImage(String imageId) {
-        this.ping();
+        this.ensureHealthy();
         return this.client.inspectImageCmd(imageId).exec();
     }
 
     public void tagImage(String imageName, String fullRepositoryName, String tagName) {
-        this.ping();
+        this.ensureHealthy();
         this.client.tagImageCmd(imageName, fullRepositoryName, tagName).exec();
     }
 
     public List<Image> listLocalImages() {
-        this.ping();
+        this.ensureHealthy();
         return this.client.listImagesCmd().withDanglingFilter(false).exec();
     }
 
+    /**
+     * @return the inspection of the local image referenced by the tag, or null if it's not found locally.
+     */
+    @Nullable
     @AzureOperation(name = "boundary/docker.find_image.image|host", params = {"tag.getImageName()", "this.config.getDockerHost().toString()"})
-    public Image getImage(Tag tag) {
-        this.ping();
-        final List<Image> images = this.client.listImagesCmd().exec();
-        return images.stream()
-            .filter(i -> ArrayUtils.isNotEmpty(i.getRepoTags()))
-            .filter(i -> Arrays.stream(i.getRepoTags()).anyMatch(t -> t.equalsIgnoreCase(tag.getFullName())))
-            .findAny().orElse(null);
+    public InspectImageResponse getImage(Tag tag) {
+        this.ensureHealthy();
+        try {
+            return this.client.inspectImageCmd(tag.getFullName()).exec();
+        } catch (final NotFoundException e) {
+            return null;
+        }
+    }
+
+    private void ensureHealthy() {
+        if (System.currentTimeMillis() - this.lastHealthyAt > HEALTH_CHECK_TTL_MS) {
+            this.ping();
+        }
     }
 
     @AzureOperation(name = "boundary/docker.ping_host.host", params = {"this.config.getDockerHost().toString()"})
     public void ping() {
         try {
             this.client.pingCmd().exec();
+            this.lastHealthyAt = System.currentTimeMillis();
         } catch (final Throwable t) {
+            this.lastHealthyAt = 0;
             final String message = String.format("failed to ping docker host at \"%s\"", config.getDockerHost());
             throw new AzureToolkitRuntimeException(message, t, "Docker host is not running or Docker is not installed.");
         }
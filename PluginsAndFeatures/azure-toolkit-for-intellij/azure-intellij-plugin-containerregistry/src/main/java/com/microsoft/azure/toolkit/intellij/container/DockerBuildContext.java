@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.container;
+
+import com.intellij.openapi.application.PathManager;
+import lombok.Getter;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * packages the minimal docker build context: only files referenced by {@code COPY}/{@code ADD} instructions of the dockerfile
+ * (minus those excluded by {@code .dockerignore}) are included, the whole base directory is packaged only if a source can't be
+ * resolved statically (e.g. contains variables). the packaged tar is cached under the IDE system directory and reused as long
+ * as the fingerprint (paths, sizes and modification times of the included files, plus the dockerfile content) is unchanged.
+ * only the {@link #MAX_CACHED_CONTEXTS} most recently used tars not older than {@link #MAX_CACHE_AGE_MS} are kept.
+ */
+public class DockerBuildContext {
+    private static final Pattern COPY_PATTERN = Pattern.compile("^\\s*(COPY|ADD)\\s+(.+)$", Pattern.CASE_INSENSITIVE);
+    private static final String DOCKER_IGNORE = ".dockerignore";
+    private static final String DOCKERFILE_IN_CONTEXT = ".azure.Dockerfile";
+    private static final Path CACHE_DIR = Paths.get(PathManager.getSystemPath(), "azure-toolkit", "docker-context");
+    private static final int MAX_CACHED_CONTEXTS = 10;
+    private static final long MAX_CACHE_AGE_MS = TimeUnit.DAYS.toMillis(7);
+
+    private final File dockerFile;
+    private final Path baseDir;
+
+    @Getter
+    private File tarFile;
+    /**
+     * path of the dockerfile inside the context
+     */
+    @Getter
+    private String dockerFilePath;
+    @Getter
+    private int fileCount;
+    @Getter
+    private boolean reused;
+    @Getter
+    private long packagingTimeMs;
+    /**
+     * the first {@code COPY}/{@code ADD} source that can't be resolved statically, null if the context is minimal.
+     */
+    @Nullable
+    @Getter
+    private String unresolvedSource;
+
+    public DockerBuildContext(@Nonnull File dockerFile, @Nonnull File baseDir) {
+        this.dockerFile = dockerFile;
+        this.baseDir = baseDir.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * compute the context and package it into {@link #getTarFile()}, packaging is skipped if the cached tar is still up-to-date.
+     */
+    public DockerBuildContext prepare() throws IOException {
+        final long start = System.currentTimeMillis();
+        final Path dockerFilePath = this.dockerFile.toPath().toAbsolutePath().normalize();
+        this.dockerFilePath = dockerFilePath.startsWith(this.baseDir) ?
+            toEntryName(this.baseDir.relativize(dockerFilePath)) : DOCKERFILE_IN_CONTEXT;
+        final List<String> dockerFileLines = Files.readAllLines(dockerFilePath, StandardCharsets.UTF_8);
+        final List<Path> files = collectFiles(this.parseSources(dockerFileLines), parseIgnores());
+        this.fileCount = files.size();
+
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        digest.update(String.join("\n", dockerFileLines).getBytes(StandardCharsets.UTF_8));
+        for (final Path file : files) {
+            final String entry = String.format("%s|%d|%d\n", toEntryName(this.baseDir.relativize(file)), Files.size(file), Files.getLastModifiedTime(file).toMillis());
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        final String fingerprint = Hex.encodeHexString(digest.digest());
+
+        final String name = DigestUtils.sha256Hex(this.baseDir + "|" + dockerFilePath);
+        this.tarFile = CACHE_DIR.resolve(name + ".tar").toFile();
+        final Path fingerprintFile = CACHE_DIR.resolve(name + ".sha256");
+        this.reused = this.tarFile.isFile() && Files.isRegularFile(fingerprintFile) &&
+            StringUtils.equals(Files.readString(fingerprintFile, StandardCharsets.UTF_8).trim(), fingerprint);
+        if (!this.reused) {
+            Files.createDirectories(CACHE_DIR);
+            final Path temp = Files.createTempFile(CACHE_DIR, name, ".tmp");
+            try {
+                writeTar(temp, files, dockerFilePath);
+                Files.move(temp, this.tarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                Files.writeString(fingerprintFile, fingerprint, StandardCharsets.UTF_8);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } else {
+            // the modification time of a tar is its last use, see evictCache
+            Files.setLastModifiedTime(this.tarFile.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        evictCache(CACHE_DIR, name, MAX_CACHED_CONTEXTS, MAX_CACHE_AGE_MS);
+        this.packagingTimeMs = System.currentTimeMillis() - start;
+        return this;
+    }
+
+    @Nonnull
+    public String getSummary() {
+        return String.format("Build context: %d files, %s (%s in %d ms)", this.fileCount,
+            FileUtils.byteCountToDisplaySize(this.tarFile.length()), this.reused ? "reused unchanged context" : "packaged", this.packagingTimeMs);
+    }
+
+    /**
+     * @return a warning if the whole base directory is packaged because a source can't be resolved statically, null otherwise.
+     */
+    @Nullable
+    public String getWarning() {
+        if (Objects.isNull(this.unresolvedSource)) {
+            return null;
+        }
+        return String.format("Warning: \"%s\" of the dockerfile can't be resolved before the build, the whole \"%s\" (%d files) is sent " +
+            "as build context. Use a literal path or exclude unneeded files in %s.", this.unresolvedSource, this.baseDir, this.fileCount, DOCKER_IGNORE);
+    }
+
+    /**
+     * delete cached contexts (tar and fingerprint) last used more than {@code maxAgeMs} ago, and the least recently used
+     * ones beyond {@code maxCount}, except the one named {@code current}. leftover temp files of failed packaging are deleted too.
+     */
+    static void evictCache(@Nonnull Path cacheDir, @Nonnull String current, int maxCount, long maxAgeMs) {
+        final List<Path> tars;
+        try (final Stream<Path> list = Files.list(cacheDir)) {
+            tars = list.filter(p -> p.getFileName().toString().endsWith(".tar") && !p.getFileName().toString().equals(current + ".tar"))
+                .sorted(Comparator.comparingLong(DockerBuildContext::lastModified).reversed())
+                .collect(Collectors.toList());
+        } catch (final IOException e) {
+            return; // cache is best effort
+        }
+        final long expiry = System.currentTimeMillis() - maxAgeMs;
+        for (int i = 0; i < tars.size(); i++) {
+            final Path tar = tars.get(i);
+            // the current context counts towards maxCount
+            if (i + 1 >= maxCount || lastModified(tar) < expiry) {
+                final String name = StringUtils.removeEnd(tar.getFileName().toString(), ".tar");
+                deleteQuietly(tar);
+                deleteQuietly(cacheDir.resolve(name + ".sha256"));
+            }
+        }
+        try (final Stream<Path> list = Files.list(cacheDir)) {
+            list.filter(p -> p.getFileName().toString().endsWith(".tmp") && lastModified(p) < expiry).forEach(DockerBuildContext::deleteQuietly);
+        } catch (final IOException e) {
+            // cache is best effort
+        }
+    }
+
+    private static long lastModified(@Nonnull Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (final IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(@Nonnull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            // e.g. still being read by another build, it will be evicted next time
+        }
+    }
+
+    /**
+     * @return sources of all {@code COPY}/{@code ADD} instructions relative to the base directory, or null if any of them
+     * can't be resolved statically and the whole base directory should be used.
+     */
+    @Nullable
+    private List<String> parseSources(@Nonnull List<String> dockerFileLines) {
+        final List<String> sources = new ArrayList<>();
+        for (final String instruction : joinContinuations(dockerFileLines)) {
+            final Matcher matcher = COPY_PATTERN.matcher(instruction);
+            if (!matcher.matches()) {
+                continue;
+            }
+            final List<String> args = splitArguments(matcher.group(2));
+            if (args.stream().anyMatch(a -> StringUtils.startsWithIgnoreCase(a, "--from="))) {
+                continue; // copies from another build stage/image, not from the context
+            }
+            final List<String> paths = args.stream().filter(a -> !a.startsWith("--")).collect(Collectors.toList());
+            for (final String source : paths.subList(0, Math.max(0, paths.size() - 1))) {
+                if (source.contains("$")) {
+                    this.unresolvedSource = source;
+                    return null;
+                }
+                if (!source.matches("^[a-zA-Z][a-zA-Z0-9+.-]*://.*")) { // remote sources of ADD are not in the context
+                    sources.add(normalizePattern(source));
+                }
+            }
+        }
+        return sources;
+    }
+
+    @Nonnull
+    private static List<String> joinContinuations(@Nonnull List<String> lines) {
+        final List<String> result = new ArrayList<>();
+        final StringBuilder current = new StringBuilder();
+        for (final String line : lines) {
+            if (line.trim().startsWith("#")) {
+                continue;
+            }
+            if (line.endsWith("\\")) {
+                current.append(line, 0, line.length() - 1).append(' ');
+            } else {
+                result.add(current.append(line).toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            result.add(current.toString());
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static List<String> splitArguments(@Nonnull String args) {
+        final String trimmed = args.trim();
+        final int jsonStart = trimmed.indexOf('[');
+        if (jsonStart >= 0 && trimmed.endsWith("]")) {
+            // exec form, e.g. COPY --chown=app ["a", "b", "/dest/"]
+            final List<String> flags = Arrays.stream(trimmed.substring(0, jsonStart).trim().split("\\s+")).filter(StringUtils::isNotBlank).collect(Collectors.toList());
+            final String json = trimmed.substring(jsonStart + 1, trimmed.length() - 1);
+            Arrays.stream(json.split(",")).map(s -> StringUtils.strip(s.trim(), "\"")).filter(StringUtils::isNotBlank).forEach(flags::add);
+            return flags;
+        }
+        return Arrays.stream(trimmed.split("\\s+")).filter(StringUtils::isNotBlank).collect(Collectors.toList());
+    }
+
+    /**
+     * @return patterns of {@code .dockerignore}, a pattern starting with {@code !} re-includes matched files.
+     */
+    @Nonnull
+    private List<String> parseIgnores() throws IOException {
+        final Path ignoreFile = this.baseDir.resolve(DOCKER_IGNORE);
+        if (!Files.isRegularFile(ignoreFile)) {
+            return new ArrayList<>();
+        }
+        return Files.readAllLines(ignoreFile, StandardCharsets.UTF_8).stream()
+            .map(String::trim)
+            .filter(l -> StringUtils.isNotBlank(l) && !l.startsWith("#"))
+            .map(l -> l.startsWith("!") ? "!" + normalizePattern(l.substring(1)) : normalizePattern(l))
+            .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    private List<Path> collectFiles(@Nullable List<String> sources, @Nonnull List<String> ignores) throws IOException {
+        final List<PathMatcher> sourceMatchers = sources == null ? null : sources.stream().map(DockerBuildContext::toMatcher).collect(Collectors.toList());
+        try (final Stream<Path> walk = Files.walk(this.baseDir)) {
+            return walk.filter(Files::isRegularFile)
+                .filter(file -> {
+                    final Path relative = this.baseDir.relativize(file);
+                    if (relative.toString().equals(DOCKER_IGNORE)) {
+                        return true;
+                    }
+                    return (sourceMatchers == null || matches(sourceMatchers, relative)) && !isIgnored(ignores, relative);
+                })
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    static boolean isIgnored(@Nonnull List<String> ignores, @Nonnull Path relative) {
+        boolean ignored = false;
+        for (final String pattern : ignores) {
+            final boolean negated = pattern.startsWith("!");
+            if (matches(List.of(toMatcher(negated ? pattern.substring(1) : pattern)), relative)) {
+                ignored = !negated;
+            }
+        }
+        return ignored;
+    }
+
+    /**
+     * a file matches if itself or any of its parent directories matches, so that directory sources/ignores apply recursively.
+     */
+    private static boolean matches(@Nonnull List<PathMatcher> matchers, @Nonnull Path relative) {
+        for (Path p = relative; p != null; p = p.getParent()) {
+            final Path candidate = p;
+            if (matchers.stream().anyMatch(m -> m.matches(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nonnull
+    private static PathMatcher toMatcher(@Nonnull String pattern) {
+        if (pattern.isEmpty() || pattern.equals(".")) {
+            return p -> true;
+        }
+        final Pattern regex = Pattern.compile(toRegex(pattern));
+        return p -> regex.matcher(toEntryName(p)).matches();
+    }
+
+    /**
+     * translate a pattern the way docker does (see moby/patternmatcher): {@code *} and {@code ?} don't match {@code /},
+     * {@code **} matches any number (including zero) of directories, so {@code **}{@code /x} also matches {@code x} at the root.
+     */
+    @Nonnull
+    private static String toRegex(@Nonnull String pattern) {
+        final StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            final char ch = pattern.charAt(i);
+            if (ch == '*') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                    i++;
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '/') {
+                        i++;
+                        regex.append("(.*/)?");
+                    } else {
+                        regex.append(".*");
+                    }
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (ch == '?') {
+                regex.append("[^/]");
+            } else if (ch == '[' && pattern.indexOf(']', i + 1) > i + 1) {
+                final int end = pattern.indexOf(']', i + 1);
+                final String range = pattern.substring(i + 1, end);
+                regex.append('[').append(range.startsWith("!") ? "^" + range.substring(1) : range).append(']');
+                i = end;
+            } else {
+                regex.append(Pattern.quote(String.valueOf(ch)));
+            }
+        }
+        return regex.toString();
+    }
+
+    @Nonnull
+    private static String normalizePattern(@Nonnull String pattern) {
+        String result = pattern.replace('\\', '/');
+        while (result.startsWith("./")) {
+            result = result.substring(2);
+        }
+        return StringUtils.removeEnd(StringUtils.removeStart(result, "/"), "/");
+    }
+
+    @Nonnull
+    private static String toEntryName(@Nonnull Path relative) {
+        return relative.toString().replace(File.separatorChar, '/');
+    }
+
+    private void writeTar(@Nonnull Path target, @Nonnull List<Path> files, @Nonnull Path dockerFilePath) throws IOException {
+        try (final OutputStream out = Files.newOutputStream(target);
+             final TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            boolean dockerFileAdded = false;
+            for (final Path file : files) {
+                final String entryName = toEntryName(this.baseDir.relativize(file));
+                dockerFileAdded = dockerFileAdded || entryName.equals(this.dockerFilePath);
+                addEntry(tar, file, entryName);
+            }
+            if (!dockerFileAdded) {
+                addEntry(tar, dockerFilePath, this.dockerFilePath);
+            }
+            tar.finish();
+        }
+    }
+
+    private static void addEntry(@Nonnull TarArchiveOutputStream tar, @Nonnull Path file, @Nonnull String entryName) throws IOException {
+        final TarArchiveEntry entry = new TarArchiveEntry(file.toFile(), entryName);
+        if (Files.isExecutable(file)) {
+            entry.setMode(0755);
+        }
+        tar.putArchiveEntry(entry);
+        Files.copy(file, tar);
+        tar.closeArchiveEntry();
+    }
+}
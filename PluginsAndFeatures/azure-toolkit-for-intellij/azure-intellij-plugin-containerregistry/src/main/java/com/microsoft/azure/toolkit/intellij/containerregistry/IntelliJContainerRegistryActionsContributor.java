@@ -7,7 +7,6 @@ package com.microsoft.azure.toolkit.intellij.containerregistry;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.dockerjava.api.command.InspectImageResponse;
-import com.github.dockerjava.api.model.Image;
 import com.github.dockerjava.core.DockerClientConfig;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
@@ -66,11 +65,10 @@ public class IntelliJContainerRegistryActionsContributor implements IActionsCont
     @SneakyThrows(JsonProcessingException.class)
     private static void inspectImage(Tag tag, AnActionEvent event) {
         final AzureDockerClient client = AzureDockerClient.getDefault();
-        final Image image = client.getImage(tag);
         final String message = String.format("Image %s is not found locally, it must be pulled first.", tag.getImageName());
         final Action<Tag> pull = AzureActionManager.getInstance().getAction(ContainerRegistryActionsContributor.PULL_IMAGE).bind(tag);
         final Action<AzResource> manifest = AzureActionManager.getInstance().getAction(ResourceCommonActionsContributor.OPEN_PORTAL_URL).bind(tag).withLabel("Open Manifest in Portal");
-        final InspectImageResponse inspection = Optional.ofNullable(image).map(i -> client.inspectImage(i.getId()))
+        final InspectImageResponse inspection = Optional.ofNullable(client.getImage(tag))
             .orElseThrow(() -> new AzureToolkitRuntimeException(message, pull, manifest));
         final String content = DockerClientConfig.getDefaultObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(inspection);
         final Project project = Objects.requireNonNull(event.getProject());
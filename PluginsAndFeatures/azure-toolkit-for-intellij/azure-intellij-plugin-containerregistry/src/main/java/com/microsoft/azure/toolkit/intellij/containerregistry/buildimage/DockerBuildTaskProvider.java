@@ -103,7 +103,8 @@ public class DockerBuildTaskProvider extends BeforeRunTaskProvider<DockerBuildTa
             final ConsoleView consoleView = AzureTaskManager.getInstance().runAndWaitAsObservable(new AzureTask<>(() ->
                     createConsoleView(configuration.getProject(), image.getImageName()))).toBlocking().first();
             final BuildImageResultCallback callback = createBuildImageResultCallback(consoleView);
-            dockerClient.buildImage(image.getImageName(), image.getDockerFile(), image.getBaseDirectory(), callback);
+            dockerClient.buildImage(image.getImageName(), image.getDockerFile(), image.getBaseDirectory(), callback,
+                message -> consoleView.print(message + System.lineSeparator(), ConsoleViewContentType.SYSTEM_OUTPUT));
             return true;
         }
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.container;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class DockerBuildContextTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void doubleStarMatchesAtContextRoot() {
+        final List<String> ignores = List.of("**/.env", "**/node_modules", "**/*.class");
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get(".env")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("node_modules", "lib", "index.js")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("Main.class")));
+    }
+
+    @Test
+    public void doubleStarMatchesInSubdirectories() {
+        final List<String> ignores = List.of("**/.env", "**/node_modules", "**/*.class");
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("app", "config", ".env")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("web", "node_modules", "lib", "index.js")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("target", "classes", "Main.class")));
+        Assert.assertFalse(DockerBuildContext.isIgnored(ignores, Paths.get("src", "Main.java")));
+        Assert.assertFalse(DockerBuildContext.isIgnored(ignores, Paths.get("app", ".envrc")));
+    }
+
+    @Test
+    public void singleStarDoesNotCrossDirectories() {
+        final List<String> ignores = List.of("*.log", "docs/*.md");
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("build.log")));
+        Assert.assertFalse(DockerBuildContext.isIgnored(ignores, Paths.get("logs", "build.log")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("docs", "README.md")));
+        Assert.assertFalse(DockerBuildContext.isIgnored(ignores, Paths.get("docs", "api", "README.md")));
+    }
+
+    @Test
+    public void directoryPatternAppliesToItsContent() {
+        final List<String> ignores = List.of("target", "docs/**");
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("target", "classes", "Main.class")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("docs", "api", "README.md")));
+        Assert.assertFalse(DockerBuildContext.isIgnored(ignores, Paths.get("src", "target", "Main.java")));
+    }
+
+    @Test
+    public void laterExceptionReIncludes() {
+        final List<String> ignores = List.of("**/*.md", "!README.md");
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("CHANGELOG.md")));
+        Assert.assertFalse(DockerBuildContext.isIgnored(ignores, Paths.get("README.md")));
+        Assert.assertTrue(DockerBuildContext.isIgnored(ignores, Paths.get("docs", "README.md")));
+    }
+
+    @Test
+    public void evictCacheKeepsRecentlyUsedContexts() throws IOException {
+        final Path cacheDir = temp.newFolder("docker-context").toPath();
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            cacheContext(cacheDir, "c" + i, now - TimeUnit.MINUTES.toMillis(i));
+        }
+        cacheContext(cacheDir, "current", now - TimeUnit.DAYS.toMillis(30));
+
+        DockerBuildContext.evictCache(cacheDir, "current", 3, TimeUnit.DAYS.toMillis(7));
+
+        Assert.assertTrue(Files.exists(cacheDir.resolve("current.tar")));
+        Assert.assertTrue(Files.exists(cacheDir.resolve("c0.tar")));
+        Assert.assertTrue(Files.exists(cacheDir.resolve("c1.sha256")));
+        Assert.assertFalse(Files.exists(cacheDir.resolve("c2.tar")));
+        Assert.assertFalse(Files.exists(cacheDir.resolve("c4.sha256")));
+    }
+
+    @Test
+    public void evictCacheDeletesExpiredContexts() throws IOException {
+        final Path cacheDir = temp.newFolder("docker-context").toPath();
+        final long now = System.currentTimeMillis();
+        cacheContext(cacheDir, "current", now);
+        cacheContext(cacheDir, "recent", now - TimeUnit.DAYS.toMillis(1));
+        cacheContext(cacheDir, "expired", now - TimeUnit.DAYS.toMillis(8));
+        final Path leftover = Files.createFile(cacheDir.resolve("failed.tmp"));
+        Files.setLastModifiedTime(leftover, FileTime.fromMillis(now - TimeUnit.DAYS.toMillis(8)));
+
+        DockerBuildContext.evictCache(cacheDir, "current", 10, TimeUnit.DAYS.toMillis(7));
+
+        Assert.assertTrue(Files.exists(cacheDir.resolve("recent.tar")));
+        Assert.assertFalse(Files.exists(cacheDir.resolve("expired.tar")));
+        Assert.assertFalse(Files.exists(cacheDir.resolve("expired.sha256")));
+        Assert.assertFalse(Files.exists(leftover));
+    }
+
+    private static void cacheContext(Path cacheDir, String name, long lastUsed) throws IOException {
+        final Path tar = Files.createFile(cacheDir.resolve(name + ".tar"));
+        Files.setLastModifiedTime(tar, FileTime.fromMillis(lastUsed));
+        Files.createFile(cacheDir.resolve(name + ".sha256"));
+    }
+}
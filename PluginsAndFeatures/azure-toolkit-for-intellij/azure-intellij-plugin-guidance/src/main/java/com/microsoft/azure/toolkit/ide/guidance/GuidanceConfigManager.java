@@ -1,6 +1,7 @@
 package com.microsoft.azure.toolkit.ide.guidance;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
@@ -31,6 +32,7 @@ import java.util.stream.Collectors;
 public class GuidanceConfigManager {
     public static final String AZURE = ".azure";
     public static final String GETTING_START_CONFIGURATION_NAME = "azure-getting-started.json";
+    private static final String COURSE_INDEX = "/guidance-index.json";
 
     private static final GuidanceConfigManager instance = new GuidanceConfigManager();
     private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory().disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER));
@@ -71,8 +73,41 @@ public class GuidanceConfigManager {
         }
     }
 
+    /**
+     * @return summaries (uri, name, title, description and tags, without phases) of all bundled courses, read from the index
+     * generated at build time. see {@link #loadCourse(String)} for the full course.
+     */
     @Cacheable(value = "guidance/courses")
     public List<CourseConfig> loadCourses() {
+        return Optional.ofNullable(loadCourseIndex()).orElseGet(GuidanceConfigManager::scanCourses);
+    }
+
+    /**
+     * @return full course config (with phases) of the course at {@code uri}
+     */
+    @Nullable
+    @Cacheable(value = "guidance/course/{uri}", key = "$uri")
+    public CourseConfig loadCourse(@Nonnull String uri) {
+        return GuidanceConfigManager.getCourse(uri);
+    }
+
+    @Nullable
+    private static List<CourseConfig> loadCourseIndex() {
+        try (final InputStream inputStream = GuidanceConfigManager.class.getResourceAsStream(COURSE_INDEX)) {
+            if (Objects.isNull(inputStream)) {
+                return null;
+            }
+            return JSON_MAPPER.readValue(inputStream, new TypeReference<List<CourseConfig>>() {
+            });
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * fallback when the course index is not generated (e.g. running from sources without gradle).
+     */
+    private static List<CourseConfig> scanCourses() {
         return Optional.of(new Reflections("guidance", Scanners.Resources))
                 .map(reflections -> {
                     try {
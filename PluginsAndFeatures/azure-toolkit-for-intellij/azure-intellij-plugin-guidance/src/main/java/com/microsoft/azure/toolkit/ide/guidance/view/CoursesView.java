@@ -29,7 +29,6 @@ import java.awt.event.MouseListener;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 public class CoursesView {
     private JPanel pnlRoot;
@@ -54,9 +53,7 @@ public class CoursesView {
     private void init() {
         this.lblTitle.setFont(JBFont.h2().asBold());
         this.lblLoading.setIcon(IntelliJAzureIcons.getIcon(AzureIcons.Common.REFRESH_ICON));
-        final String showNewUiFlag = Optional.ofNullable(ExperimentationClient.getExperimentationService())
-                .map(service -> service.getFeatureVariable(ExperimentationClient.FeatureFlag.GETTING_STARTED_UI.getFlagName())).orElse("false");
-        this.actionLinkPanel.setVisible(Boolean.parseBoolean(showNewUiFlag));
+        this.actionLinkPanel.setVisible(ExperimentationClient.isFeatureEnabled(ExperimentationClient.FeatureFlag.GETTING_STARTED_UI));
         AzureTaskManager.getInstance().runInBackgroundAsObservable("Loading lesson", () -> GuidanceConfigManager.getInstance().loadCourses())
                 .subscribeOn(Schedulers.computation())
                 .subscribe(courses -> AzureTaskManager.getInstance().runLater(() -> this.setCourses(courses)));
@@ -7,6 +7,7 @@ import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.UIUtil;
 import com.microsoft.azure.toolkit.ide.common.experiment.ExperimentationClient;
 import com.microsoft.azure.toolkit.ide.common.store.AzureStoreManager;
+import com.microsoft.azure.toolkit.ide.guidance.GuidanceConfigManager;
 import com.microsoft.azure.toolkit.ide.guidance.GuidanceViewManager;
 import com.microsoft.azure.toolkit.ide.guidance.action.ShowGettingStartAction;
 import com.microsoft.azure.toolkit.ide.guidance.config.CourseConfig;
@@ -41,8 +42,7 @@ public class CoursePanel {
 
     public CoursePanel(@Nonnull final CourseConfig course, @Nonnull final Project project) {
         super();
-        this.showNewUIFlag = Boolean.parseBoolean(Optional.ofNullable(ExperimentationClient.getExperimentationService())
-                .map(service -> service.getFeatureVariable(ExperimentationClient.FeatureFlag.GETTING_STARTED_UI.getFlagName())).orElse("false"));
+        this.showNewUIFlag = ExperimentationClient.isFeatureEnabled(ExperimentationClient.FeatureFlag.GETTING_STARTED_UI);
         this.course = course;
         this.project = project;
         $$$setupUI$$$();
@@ -93,7 +93,10 @@ public class CoursePanel {
             AzureStoreManager.getInstance().getIdeStore().setProperty(ShowGettingStartAction.GUIDANCE, ShowGettingStartAction.IS_ACTION_TRIGGERED, String.valueOf(true));
         }
         OperationContext.current().setTelemetryProperty("course", this.course.getTitle());
-        GuidanceViewManager.getInstance().openCourseView(project, course);
+        // course list is rendered from the course index, full course (with phases) is loaded on open
+        final CourseConfig fullCourse = Optional.ofNullable(course.getUri())
+                .map(uri -> GuidanceConfigManager.getInstance().loadCourse(uri)).orElse(course);
+        GuidanceViewManager.getInstance().openCourseView(project, fullCourse);
     }
 
     private JLabel decorateTagLabel(String tag) {
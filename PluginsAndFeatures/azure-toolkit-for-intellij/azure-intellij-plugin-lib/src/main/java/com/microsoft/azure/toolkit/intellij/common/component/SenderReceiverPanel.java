@@ -5,45 +5,77 @@ import com.intellij.execution.process.ProcessAdapter;
 import com.intellij.execution.process.ProcessEvent;
 import com.intellij.execution.ui.ConsoleView;
 import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptor;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.ui.components.fields.ExpandableTextField;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandler;
 import com.microsoft.azure.toolkit.intellij.common.messager.IntellijAzureMessager;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessage;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationBundle;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.resource.message.ISenderReceiver;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class SenderReceiverPanel extends JPanel {
     @Getter
     private JPanel contentPanel;
     private JButton sendMessageBtn;
+    private JButton sendFileBtn;
     private ExpandableTextField messageInput;
     private JPanel listenPanel;
     private JPanel sendPanel;
+    private static final int BULK_SEND_RATE = Math.max(1, Integer.getInteger("azure.messaging.bulkSendRate", 100));
     private final ISenderReceiver instance;
     private final ConsoleView consoleView;
+    private final Project project;
+    @Getter
+    private final ConsoleRenderer renderer;
     @Nullable
     private RunProcessHandler listenProcessHandler;
     private AzureEventBus.EventListener listener;
 
     public SenderReceiverPanel(Project project, ISenderReceiver ServiceBusInstance) {
         super();
+        this.project = project;
         this.consoleView = new ConsoleViewImpl(project, true);
+        this.renderer = new ConsoleRenderer(this.consoleView);
         this.instance = ServiceBusInstance;
         $$$setupUI$$$();
         this.init();
@@ -76,6 +108,7 @@ public class SenderReceiverPanel extends JPanel {
 
     public void dispose() {
         AzureEventBus.off("resource.status_changed.resource", listener);
+        this.renderer.dispose();
     }
 
     private void init() {
@@ -86,6 +119,7 @@ public class SenderReceiverPanel extends JPanel {
                 new GridConstraints(0, 0, 1, 1, 0, GridConstraints.ALIGN_FILL,
                         3, 3, null, null, null, 0));
         this.sendMessageBtn.setEnabled(instance.isSendEnabled());
+        this.sendFileBtn.setEnabled(instance.isSendEnabled());
         this.initListeners();
     }
 
@@ -95,9 +129,11 @@ public class SenderReceiverPanel extends JPanel {
             final Object source = azureEvent.getSource();
             if (source instanceof ISenderReceiver && ((ISenderReceiver) source).getId().equals(this.instance.getId())) {
                 this.sendMessageBtn.setEnabled(instance.isSendEnabled());
+                this.sendFileBtn.setEnabled(instance.isSendEnabled());
             }
         });
         this.sendMessageBtn.addActionListener(e -> sendMessage());
+        this.sendFileBtn.addActionListener(e -> sendMessagesFromFile());
         this.messageInput.addActionListener(e -> sendMessage());
         AzureEventBus.on("resource.status_changed.resource", listener);
     }
@@ -106,14 +142,61 @@ public class SenderReceiverPanel extends JPanel {
         final String message = messageInput.getText();
         messageInput.setText(StringUtils.EMPTY);
         AzureTaskManager.getInstance().runInBackground("send message",() -> {
-            OperationContext.current().setMessager(new ConsoleMessager(consoleView));
+            OperationContext.current().setMessager(new ConsoleMessager(renderer));
             instance.sendMessage(message);
         });
     }
 
+    /**
+     * send every non-blank line of a file as a message, throttled to {@link #BULK_SEND_RATE} messages per second.
+     */
+    private void sendMessagesFromFile() {
+        final FileChooserDescriptor descriptor = FileChooserDescriptorFactory.createSingleFileDescriptor();
+        descriptor.setTitle("Choose File of Messages (One Message per Line)");
+        final VirtualFile file = FileChooser.chooseFile(descriptor, project, null);
+        if (file == null) {
+            return;
+        }
+        final AzureString title = OperationBundle.description("user/common.send_messages_from_file.file", file.getName());
+        final AzureTask<Void> task = new AzureTask<>(project, title, true, () -> {
+            final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            final ConsoleMessager messager = new ConsoleMessager(renderer);
+            OperationContext.current().setMessager(messager);
+            final List<String> messages;
+            try (final Stream<String> lines = Files.lines(Paths.get(file.getPath()))) {
+                messages = lines.filter(StringUtils::isNotBlank).collect(Collectors.toList());
+            } catch (final IOException e) {
+                throw new AzureToolkitRuntimeException(String.format("failed to read messages from file (%s)", file.getPath()), e);
+            }
+            final long interval = TimeUnit.SECONDS.toNanos(1) / BULK_SEND_RATE;
+            final long start = System.nanoTime();
+            long next = start;
+            int sent = 0;
+            indicator.setIndeterminate(false);
+            for (final String message : messages) {
+                final long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (indicator.isCanceled() || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                instance.sendMessage(message);
+                sent++;
+                indicator.setFraction((double) sent / messages.size());
+                indicator.setText2(String.format("%d/%d message(s) sent", sent, messages.size()));
+                next += interval;
+            }
+            final long elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            final String summary = String.format("%d/%d message(s) sent in %d ms (%.1f msg/s)", sent, messages.size(), elapsed, sent * 1000.0 / elapsed);
+            messager.info(String.format(sent < messages.size() ? "%s, cancelled%n" : "%s%n", summary));
+        });
+        AzureTaskManager.getInstance().runInBackground(task);
+    }
+
     @AzureOperation(name = "user/eventhubs.start_listening.instance")
     private void execute() {
-        final ConsoleMessager messager = new ConsoleMessager(consoleView);
+        final ConsoleMessager messager = new ConsoleMessager(renderer);
         OperationContext.current().setMessager(messager);
         instance.startReceivingMessage();
     }
@@ -127,29 +210,152 @@ public class SenderReceiverPanel extends JPanel {
     }
 
     private static class ConsoleMessager extends IntellijAzureMessager {
-        private final ConsoleView view;
-        public ConsoleMessager(ConsoleView view) {
+        private final ConsoleRenderer renderer;
+        public ConsoleMessager(ConsoleRenderer renderer) {
             super();
-            this.view = view;
+            this.renderer = renderer;
         }
         @Override
         public boolean show(IAzureMessage raw) {
             if (raw.getType() == IAzureMessage.Type.INFO) {
-                view.print(raw.getMessage().toString(), ConsoleViewContentType.SYSTEM_OUTPUT);
+                renderer.print(raw.getMessage().toString(), ConsoleViewContentType.SYSTEM_OUTPUT, true);
                 return true;
             } else if (raw.getType() == IAzureMessage.Type.SUCCESS) {
-                view.print(raw.getMessage().toString(), ConsoleViewContentType.USER_INPUT);
+                renderer.print(raw.getMessage().toString(), ConsoleViewContentType.USER_INPUT, false);
                 return true;
             } else if (raw.getType() == IAzureMessage.Type.DEBUG) {
-                view.print(raw.getMessage().toString(), ConsoleViewContentType.LOG_DEBUG_OUTPUT);
+                renderer.print(raw.getMessage().toString(), ConsoleViewContentType.LOG_DEBUG_OUTPUT, true);
                 return true;
             } else if (raw.getType() == IAzureMessage.Type.WARNING) {
-                view.print(raw.getMessage().toString(), ConsoleViewContentType.LOG_WARNING_OUTPUT);
+                renderer.print(raw.getMessage().toString(), ConsoleViewContentType.LOG_WARNING_OUTPUT, false);
             } else if (raw.getType() == IAzureMessage.Type.ERROR) {
-                view.print(raw.getMessage().toString(), ConsoleViewContentType.ERROR_OUTPUT);
+                renderer.print(raw.getMessage().toString(), ConsoleViewContentType.ERROR_OUTPUT, false);
             }
             return super.show(raw);
         }
 
     }
+
+    /**
+     * renders messages to the console in batches once per frame instead of one {@link ConsoleView#print} per message.
+     * pending messages are kept in a ring buffer of {@link #BUFFER_CAPACITY} (the oldest are dropped once it's full), and once
+     * the incoming rate exceeds {@link #MAX_RENDER_RATE} messages per second, only a sample of the samplable messages (received
+     * messages) is rendered. warnings and errors are always rendered.
+     */
+    public static class ConsoleRenderer {
+        private static final int BUFFER_CAPACITY = 10000;
+        private static final int MAX_RENDER_RATE = 500;
+        private static final Duration FRAME_INTERVAL = Duration.ofMillis(50);
+
+        private final ConsoleView view;
+        private final Deque<Pair<String, ConsoleViewContentType>> buffer = new ArrayDeque<>();
+        private final Disposable ticker;
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong rendered = new AtomicLong();
+        private final AtomicLong sampledOut = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private long windowStart = System.nanoTime();
+        private long windowReceived;
+        private long windowSampledOut;
+        private long windowDropped;
+        @Getter
+        private volatile long rate;
+        private volatile long sampleEvery = 1;
+
+        ConsoleRenderer(@Nonnull ConsoleView view) {
+            this.view = view;
+            this.ticker = Flux.interval(FRAME_INTERVAL).subscribe(i -> this.render());
+        }
+
+        public void print(@Nonnull String text, @Nonnull ConsoleViewContentType type, boolean samplable) {
+            final long count = this.received.incrementAndGet();
+            if (samplable && this.sampleEvery > 1 && count % this.sampleEvery != 0) {
+                this.sampledOut.incrementAndGet();
+                return;
+            }
+            synchronized (this.buffer) {
+                this.buffer.addLast(Pair.of(text, type));
+                if (this.buffer.size() > BUFFER_CAPACITY) {
+                    this.buffer.pollFirst();
+                    this.dropped.incrementAndGet();
+                }
+            }
+        }
+
+        private synchronized void render() {
+            final List<Pair<String, ConsoleViewContentType>> batch;
+            synchronized (this.buffer) {
+                batch = new ArrayList<>(this.buffer);
+                this.buffer.clear();
+            }
+            final StringBuilder text = new StringBuilder();
+            ConsoleViewContentType type = null;
+            for (final Pair<String, ConsoleViewContentType> entry : batch) {
+                if (type != null && type != entry.getRight()) {
+                    this.view.print(text.toString(), type);
+                    text.setLength(0);
+                }
+                type = entry.getRight();
+                text.append(entry.getLeft());
+            }
+            if (type != null) {
+                this.view.print(text.toString(), type);
+            }
+            this.rendered.addAndGet(batch.size());
+            this.updateRate();
+        }
+
+        private void updateRate() {
+            final long now = System.nanoTime();
+            final long elapsed = now - this.windowStart;
+            if (elapsed < TimeUnit.SECONDS.toNanos(1)) {
+                return;
+            }
+            final long received = this.received.get();
+            final long sampledOut = this.sampledOut.get();
+            final long dropped = this.dropped.get();
+            this.rate = (received - this.windowReceived) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+            final long sampledOutInWindow = sampledOut - this.windowSampledOut;
+            final long droppedInWindow = dropped - this.windowDropped;
+            if (sampledOutInWindow > 0 || droppedInWindow > 0) {
+                this.view.print(String.format("[%d msg/s, %d not rendered (sampled), %d dropped (lagging)]%n", this.rate, sampledOutInWindow, droppedInWindow),
+                    ConsoleViewContentType.LOG_INFO_OUTPUT);
+            }
+            this.sampleEvery = Math.max(1, (this.rate + MAX_RENDER_RATE - 1) / MAX_RENDER_RATE);
+            this.windowStart = now;
+            this.windowReceived = received;
+            this.windowSampledOut = sampledOut;
+            this.windowDropped = dropped;
+        }
+
+        /**
+         * @return number of messages waiting to be rendered.
+         */
+        public int getLag() {
+            synchronized (this.buffer) {
+                return this.buffer.size();
+            }
+        }
+
+        public long getReceivedCount() {
+            return this.received.get();
+        }
+
+        public long getRenderedCount() {
+            return this.rendered.get();
+        }
+
+        public long getSampledOutCount() {
+            return this.sampledOut.get();
+        }
+
+        public long getDroppedCount() {
+            return this.dropped.get();
+        }
+
+        void dispose() {
+            this.ticker.dispose();
+            this.render();
+        }
+    }
 }
@@ -2,20 +2,47 @@ package com.microsoft.azure.toolkit.intellij.common.streaminglog;
 
 import com.intellij.execution.impl.ConsoleViewImpl;
 import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
 import com.intellij.openapi.project.Project;
+import lombok.Getter;
+import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.NotNull;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
 import static com.intellij.execution.ui.ConsoleViewContentType.NORMAL_OUTPUT;
 import static com.intellij.execution.ui.ConsoleViewContentType.SYSTEM_OUTPUT;
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
 public class StreamingLogsConsoleView extends ConsoleViewImpl {
     private static final String SEPARATOR = System.getProperty("line.separator");
+    private static final int DEFAULT_BUFFER_CAPACITY = 10000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final Duration BATCH_INTERVAL = Duration.ofMillis(50);
     private boolean isDisposed;
     private Disposable subscription;
+    /**
+     * lines received but not yet printed, oldest lines are trimmed once {@link #bufferCapacity} is exceeded.
+     * it also guards the dropped line counters and printing, so that lines from the log stream and lines
+     * flushed on resume reach the console in the order they were received.
+     */
+    private final Deque<String> pending = new ArrayDeque<>();
+    @Getter
+    private volatile int bufferCapacity = Integer.getInteger("azure.logStreaming.bufferCapacity", DEFAULT_BUFFER_CAPACITY);
+    @Getter
+    private volatile boolean paused;
+    private long droppedLines;
+    private long unreportedDroppedLines;
 
     public StreamingLogsConsoleView(@NotNull Project project) {
         super(project, true);
@@ -27,8 +54,9 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
         if (!isActive()) {
             printlnToConsole(message("app.logStreaming.hint.connect"), SYSTEM_OUTPUT);
             subscription = logStreaming.subscribeOn(Schedulers.boundedElastic())
+                    .bufferTimeout(MAX_BATCH_SIZE, BATCH_INTERVAL)
                     .doAfterTerminate(() -> printlnToConsole(message("appService.logStreaming.hint.disconnected"), SYSTEM_OUTPUT))
-                    .subscribe((log) -> printlnToConsole(log, NORMAL_OUTPUT));
+                    .subscribe(this::appendLines);
         }
     }
 
@@ -47,14 +75,97 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
         return this.isDisposed;
     }
 
+    public long getDroppedLines() {
+        synchronized (pending) {
+            return droppedLines;
+        }
+    }
+
+    public void setBufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = Math.max(1, bufferCapacity);
+    }
+
+    /**
+     * when paused, received lines keep being buffered (up to {@link #getBufferCapacity()}) and are printed on resume.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (!paused) {
+            flushPending();
+        }
+    }
+
+    private void appendLines(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            pending.addAll(lines);
+            while (pending.size() > bufferCapacity) {
+                pending.pollFirst();
+                droppedLines++;
+                unreportedDroppedLines++;
+            }
+        }
+        if (!paused) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        synchronized (pending) {
+            if (pending.isEmpty() && unreportedDroppedLines == 0) {
+                return;
+            }
+            if (unreportedDroppedLines > 0) {
+                printlnToConsole(String.format("... %d line(s) trimmed (%d in total) ...", unreportedDroppedLines, droppedLines), SYSTEM_OUTPUT);
+                unreportedDroppedLines = 0;
+            }
+            final StringBuilder text = new StringBuilder();
+            for (String line = pending.pollFirst(); line != null; line = pending.pollFirst()) {
+                text.append(line).append(SEPARATOR);
+            }
+            if (text.length() > 0) {
+                // ConsoleViewImpl#print only appends to the console's own buffer, so it's cheap to call under the lock
+                this.print(text.toString(), NORMAL_OUTPUT);
+            }
+        }
+    }
+
     private void printlnToConsole(String message, ConsoleViewContentType consoleViewContentType) {
         this.print(message + SEPARATOR, consoleViewContentType);
     }
 
+    @Override
+    public AnAction @NotNull [] createConsoleActions() {
+        return ArrayUtils.add(super.createConsoleActions(), new PauseOutputAction());
+    }
+
     @Override
     public void dispose() {
         super.dispose();
         this.isDisposed = true;
         closeStreamingLog();
     }
+
+    private class PauseOutputAction extends ToggleAction {
+        PauseOutputAction() {
+            super("Pause Output", "Pause printing streaming logs, received logs are kept and printed on resume", AllIcons.Actions.Pause);
+        }
+
+        @Override
+        public boolean isSelected(@NotNull AnActionEvent e) {
+            return paused;
+        }
+
+        @Override
+        public void setSelected(@NotNull AnActionEvent e, boolean state) {
+            setPaused(state);
+        }
+
+        @Override
+        public @NotNull ActionUpdateThread getActionUpdateThread() {
+            return ActionUpdateThread.BGT;
+        }
+    }
 }
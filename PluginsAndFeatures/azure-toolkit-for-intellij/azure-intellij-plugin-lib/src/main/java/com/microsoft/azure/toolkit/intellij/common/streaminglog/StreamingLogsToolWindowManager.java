@@ -6,7 +6,12 @@
 package com.microsoft.azure.toolkit.intellij.common.streaminglog;
 
 import com.intellij.execution.ui.ConsoleView;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionPlaces;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.ui.content.Content;
@@ -36,7 +41,13 @@ public class StreamingLogsToolWindowManager {
         final String consoleName = getConsoleViewName(resourceId, resourceName);
         Content content = toolWindow.getContentManager().findContent(consoleName);
         if (content == null) {
-            content = contentFactory.createContent(consoleView.getComponent(), consoleName, false);
+            final SimpleToolWindowPanel panel = new SimpleToolWindowPanel(false, true);
+            final ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLWINDOW_CONTENT,
+                    new DefaultActionGroup(consoleView.createConsoleActions()), false);
+            toolbar.setTargetComponent(consoleView.getComponent());
+            panel.setToolbar(toolbar.getComponent());
+            panel.setContent(consoleView.getComponent());
+            content = contentFactory.createContent(panel, consoleName, false);
             content.setDisposer(consoleView);
             toolWindow.getContentManager().addContent(content);
         }
@@ -16,7 +16,9 @@ import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.LightVirtualFile;
 import com.microsoft.azure.toolkit.intellij.common.fileexplorer.VirtualFileActions;
 import com.microsoft.azure.toolkit.intellij.storage.component.FileCreationDialog;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
@@ -37,19 +39,29 @@ import org.apache.commons.io.FileUtils;
 import javax.annotation.Nonnull;
 import java.awt.datatransfer.StringSelection;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class StorageFileActions {
+    private static final int PREVIEW_HEAD_SIZE = 4 * StorageFileRangeReader.CHUNK_SIZE;
+    private static final int PREVIEW_TAIL_SIZE = StorageFileRangeReader.CHUNK_SIZE;
+    private static final int MAX_LISTED_CONFLICTS = 10;
+    private static final int BINARY_CHECK_SIZE = 8000;
 
     @SneakyThrows
     public static void openFileInEditor(StorageFile file, Project project) {
-        final String failure = String.format("Can not open file (%s). Try downloading it first and open it manually.", file.getName());
         if (file.getSize() > 10 * FileUtils.ONE_MB) {
-            AzureTaskManager.getInstance().runLater(() -> Messages.showWarningDialog(failure, "Open File"));
+            openPreviewInEditor(file, project);
             return;
         }
         final AzureString title = OperationBundle.description("boundary/storage.load_content.file", file.getName());
@@ -67,6 +79,63 @@ public class StorageFileActions {
         AzureTaskManager.getInstance().runInModal(task);
     }
 
+    /**
+     * open a read-only preview of a large file: only its head and tail are fetched (by range requests), so it shows up
+     * immediately and uses constant memory whatever the file size is. edit needs a full download.
+     */
+    private static void openPreviewInEditor(@Nonnull StorageFile file, Project project) {
+        final AzureString title = OperationBundle.description("boundary/storage.load_content.file", file.getName());
+        AzureTaskManager.getInstance().runInBackground(title, () -> {
+            final String content;
+            try {
+                final StorageFileRangeReader reader = StorageFileRangeReader.of(file);
+                final byte[] head = reader.read(0, PREVIEW_HEAD_SIZE);
+                if (isBinary(head)) {
+                    final String message = String.format("File (%s) is a binary file and can not be previewed. Try downloading it first and open it manually.", file.getName());
+                    AzureTaskManager.getInstance().runLater(() -> Messages.showWarningDialog(message, "Open File"));
+                    return;
+                }
+                content = loadPreview(reader, head);
+            } catch (final IOException e) {
+                final String failure = String.format("Can not preview file (%s). Try downloading it first and open it manually.", file.getName());
+                AzureTaskManager.getInstance().runLater(() -> Messages.showWarningDialog(failure, "Open File"));
+                return;
+            }
+            final LightVirtualFile vf = new LightVirtualFile(String.format("[preview] %s", file.getName()), content);
+            vf.setWritable(false);
+            AzureTaskManager.getInstance().runLater(() -> FileEditorManager.getInstance(project).openFile(vf, true));
+        });
+    }
+
+    /**
+     * same heuristic as git: content with a NUL byte in its first few KB is binary.
+     */
+    private static boolean isBinary(@Nonnull byte[] head) {
+        for (int i = 0; i < Math.min(head.length, BINARY_CHECK_SIZE); i++) {
+            if (head[i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String loadPreview(@Nonnull StorageFileRangeReader reader, @Nonnull byte[] headBytes) throws IOException {
+        final long size = reader.getSize();
+        final String head = new String(headBytes, StandardCharsets.UTF_8);
+        final long tailStart = Math.max(PREVIEW_HEAD_SIZE, size - PREVIEW_TAIL_SIZE);
+        final StringBuilder content = new StringBuilder()
+            .append(String.format("# Read-only preview of a %s file, download it to see or edit the full content.%n", StringUtil.formatFileSize(size)))
+            .append(head);
+        if (tailStart < size) {
+            final String tail = new String(reader.read(tailStart, (int) (size - tailStart)), StandardCharsets.UTF_8);
+            if (tailStart > PREVIEW_HEAD_SIZE) {
+                content.append(String.format("%n... %s omitted ...%n", StringUtil.formatFileSize(tailStart - PREVIEW_HEAD_SIZE)));
+            }
+            content.append(tail);
+        }
+        return StringUtil.convertLineSeparators(content.toString());
+    }
+
     @SneakyThrows
     private static void downloadAndOpen(@Nonnull StorageFile file, Project project) {
         final String failure = String.format("Can not open file (%s). Try downloading it first and open it manually.", file.getName());
@@ -160,22 +229,11 @@ public class StorageFileActions {
             final FileChooserDescriptor descriptor = new FileChooserDescriptor(true, false, true, true, false, true);
             descriptor.setTitle("Choose Files to Upload");
             final VirtualFile[] files = FileChooser.chooseFiles(descriptor, project, null);
-            final AtomicInteger count = new AtomicInteger(0);
-            for (final VirtualFile virtualFile : files) {
-                final AzureString title = OperationBundle.description("internal/storage.upload_files.source|dir", virtualFile.getName(), file.getName());
-                final AzureTask<Void> task = new AzureTask<>(project, title, false, () -> {
-                    final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
-                    indicator.setIndeterminate(true);
-                    final AbstractAzResourceModule<? extends StorageFile, ? extends StorageFile, ?> module = file.getSubFileModule();
-                    final StorageFile.Draft<?, ?> draft = (StorageFile.Draft<?, ?>) module.create(virtualFile.getName(), "");
-                    draft.setSourceFile(Paths.get(virtualFile.getPath()));
-                    draft.createIfNotExist();
-                    count.incrementAndGet();
-                    if (count.get() == files.length) {
-                        AzureMessager.getMessager().success(AzureString.format("Successfully uploaded %s file(s) to directory \"%s\".", files.length, file.getName()));
-                    }
-                });
-                AzureTaskManager.getInstance().runInBackground(task);
+            if (files.length > 0) {
+                final List<Path> sources = Arrays.stream(files).map(f -> Paths.get(f.getPath())).collect(Collectors.toList());
+                final AzureString title = OperationBundle.description("internal/storage.upload_files.count|dir", files.length, file.getName());
+                runTransfer(project, title, StorageFileTransfer.upload(sources, file, c -> resolveConflicts(c, project)), t ->
+                    AzureMessager.getMessager().success(AzureString.format("Successfully uploaded %s file(s) to directory \"%s\", %s file(s) skipped.", t.getTransferredFiles(), file.getName(), t.getSkippedFiles())));
             }
         });
     }
@@ -203,7 +261,17 @@ public class StorageFileActions {
     }
 
     public static void uploadFolder(StorageFile file, Project project) {
-
+        AzureTaskManager.getInstance().runLater(() -> {
+            final FileChooserDescriptor descriptor = FileChooserDescriptorFactory.createSingleFolderDescriptor();
+            descriptor.setTitle("Choose Folder to Upload");
+            final VirtualFile vf = FileChooser.chooseFile(descriptor, project, null);
+            if (vf != null) {
+                final AzureString title = OperationBundle.description("boundary/storage.upload_folder.source|dir", vf.getName(), file.getName());
+                final StorageFileTransfer transfer = StorageFileTransfer.upload(Collections.singletonList(Paths.get(vf.getPath())), file, c -> resolveConflicts(c, project));
+                runTransfer(project, title, transfer, t ->
+                    AzureMessager.getMessager().success(AzureString.format("Successfully uploaded folder \"%s\" (%s file(s), %s skipped) to directory \"%s\".", vf.getName(), t.getTransferredFiles(), t.getSkippedFiles(), file.getName())));
+            }
+        });
     }
 
     public static void downloadFile(StorageFile file, Project project) {
@@ -214,12 +282,8 @@ public class StorageFileActions {
             final VirtualFile vf = FileChooser.chooseFile(fileChooserDescriptor, null, null);
             if (vf != null) {
                 final AzureString title = OperationBundle.description("boundary/storage.download_file.file|dir", file.getName(), vf.getPath());
-                manager.runInModal(title, () -> {
-                    final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
-                    indicator.setIndeterminate(true);
-                    final Path dest = Paths.get(Objects.requireNonNull(vf).getPath(), file.getName());
-                    file.download(dest);
-                    final File destFile = dest.toFile();
+                runTransfer(project, title, StorageFileTransfer.download(file, Paths.get(vf.getPath())), t -> {
+                    final File destFile = Paths.get(vf.getPath(), file.getName()).toFile();
                     if (destFile.exists()) {
                         VirtualFileActions.notifyDownloadSuccess(file.getName(), destFile, project);
                     }
@@ -228,6 +292,46 @@ public class StorageFileActions {
         });
     }
 
+    /**
+     * run {@code transfer} in background with a cancellable, determinate progress indicator.
+     */
+    private static void runTransfer(Project project, AzureString title, StorageFileTransfer transfer, Consumer<StorageFileTransfer> onSuccess) {
+        final AzureTask<Void> task = new AzureTask<>(project, title, true, () -> {
+            transfer.run(ProgressManager.getInstance().getProgressIndicator());
+            final List<String> failures = transfer.getFailures();
+            if (!failures.isEmpty()) {
+                final AzureString message = AzureString.format("%s of %s file(s) failed to transfer: %s", failures.size(), transfer.getTotalFiles(), String.join(", ", failures));
+                AzureMessager.getMessager().warning(message);
+            } else if (transfer.isCancelled() && transfer.isStarted()) {
+                AzureMessager.getMessager().info(AzureString.format("Transfer cancelled, %s of %s file(s) completed. Run it again to resume.",
+                    transfer.getTransferredFiles() + transfer.getSkippedFiles(), transfer.getTotalFiles()));
+            } else if (!transfer.isCancelled()) {
+                onSuccess.accept(transfer);
+            }
+        });
+        AzureTaskManager.getInstance().runInBackground(task);
+    }
+
+    /**
+     * ask once whether to overwrite the existing remote files, closing the dialog cancels the upload, the default is to skip them.
+     */
+    private static StorageFileTransfer.ConflictResolution resolveConflicts(List<String> conflicts, Project project) {
+        final String files = conflicts.stream().limit(MAX_LISTED_CONFLICTS).collect(Collectors.joining("\n"));
+        final String more = conflicts.size() > MAX_LISTED_CONFLICTS ? String.format("%n... and %d more", conflicts.size() - MAX_LISTED_CONFLICTS) : "";
+        final String message = String.format("%d file(s) already exist in the target directory:%n%s%s%n%nDo you want to overwrite them?", conflicts.size(), files, more);
+        final String[] options = {"Overwrite", "Skip", "Cancel"};
+        final AtomicInteger choice = new AtomicInteger(-1);
+        AzureTaskManager.getInstance().runAndWait(() -> choice.set(Messages.showDialog(project, message, "Files Already Exist", options, 1, Messages.getWarningIcon())));
+        switch (choice.get()) {
+            case 0:
+                return StorageFileTransfer.ConflictResolution.OVERWRITE;
+            case 1:
+                return StorageFileTransfer.ConflictResolution.SKIP;
+            default:
+                return StorageFileTransfer.ConflictResolution.CANCEL;
+        }
+    }
+
     @AzureOperation(name = "user/storage.copy_file_url.file", params = {"file.getName()"})
     public static void copyUrl(StorageFile file, Project project) {
         final String url = file.getUrl();
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.storage;
+
+import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
+import lombok.Getter;
+import org.apache.commons.io.IOUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * reads arbitrary byte ranges of a blob/share file through HTTP range requests against its SAS url. fetched chunks are kept in
+ * a small LRU cache, so memory usage is bounded by {@link #MAX_CACHED_CHUNKS} * {@link #CHUNK_SIZE} whatever the file size is.
+ * readers are shared per file version (see {@link #of}), so previewing the same file again reuses the fetched chunks. a reader
+ * outlives the SAS url it got, so a new one is generated when the current one is rejected (HTTP 403).
+ */
+class StorageFileRangeReader {
+    static final int CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CACHED_CHUNKS = 16;
+    private static final int MAX_CACHED_READERS = 4;
+    private static final int TIMEOUT_MS = 30 * 1000;
+    private static final Map<String, StorageFileRangeReader> readers = new LinkedHashMap<String, StorageFileRangeReader>(MAX_CACHED_READERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StorageFileRangeReader> eldest) {
+            return size() > MAX_CACHED_READERS;
+        }
+    };
+
+    @Nonnull
+    private StorageFile file;
+    @Nullable
+    private String url;
+    @Getter
+    private final long size;
+    // the server answered a range request with the full content (HTTP 200), it would download the whole file for every chunk.
+    private boolean rangesUnsupported;
+    private final Map<Long, byte[]> chunks = new LinkedHashMap<Long, byte[]>(MAX_CACHED_CHUNKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+
+    private StorageFileRangeReader(@Nonnull StorageFile file) {
+        this.file = file;
+        this.size = file.getSize();
+    }
+
+    /**
+     * @return the shared reader of the current version (identified by last modified time and size) of {@code file}.
+     */
+    @Nonnull
+    static StorageFileRangeReader of(@Nonnull StorageFile file) {
+        final String key = String.format("%s|%s|%d", file.getId(), file.getLastModified(), file.getSize());
+        final StorageFileRangeReader reader;
+        synchronized (readers) {
+            reader = readers.computeIfAbsent(key, k -> new StorageFileRangeReader(file));
+        }
+        reader.setFile(file);
+        return reader;
+    }
+
+    private synchronized void setFile(@Nonnull StorageFile file) {
+        this.file = file;
+    }
+
+    /**
+     * @return at most {@code length} bytes starting at {@code offset}, fewer if the end of the file is reached.
+     */
+    synchronized byte[] read(long offset, int length) throws IOException {
+        final long end = Math.min(this.size, offset + length);
+        final ByteArrayOutputStream result = new ByteArrayOutputStream((int) Math.max(0, end - offset));
+        long position = offset;
+        while (position < end) {
+            final long index = position / CHUNK_SIZE;
+            byte[] chunk = this.chunks.get(index);
+            if (chunk == null) {
+                chunk = this.fetch(index * CHUNK_SIZE, (int) Math.min(CHUNK_SIZE, this.size - index * CHUNK_SIZE));
+                this.chunks.put(index, chunk);
+            }
+            final int from = (int) (position - index * CHUNK_SIZE);
+            final int count = (int) Math.min(chunk.length - from, end - position);
+            if (count <= 0) {
+                break;
+            }
+            result.write(chunk, from, count);
+            position += count;
+        }
+        return result.toByteArray();
+    }
+
+    private byte[] fetch(long offset, int length) throws IOException {
+        if (this.rangesUnsupported) {
+            throw new IOException("range requests are not supported by the server");
+        }
+        final boolean fresh = this.url == null;
+        if (fresh) {
+            this.url = this.file.getSasUrl();
+        }
+        final HttpURLConnection connection = (HttpURLConnection) new URL(this.url).openConnection();
+        try {
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Range", String.format("bytes=%d-%d", offset, offset + length - 1));
+            final int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_FORBIDDEN && !fresh) {
+                // the SAS url has probably expired, retry once with a new one
+                this.url = null;
+                return this.fetch(offset, length);
+            }
+            if (code != HttpURLConnection.HTTP_PARTIAL && code != HttpURLConnection.HTTP_OK) {
+                throw new IOException(String.format("failed to read bytes [%d, %d): HTTP %d %s", offset, offset + length, code, connection.getResponseMessage()));
+            }
+            if (code == HttpURLConnection.HTTP_OK && (offset > 0 || length < this.size)) {
+                // server ignored the range header, stop instead of downloading the whole file.
+                this.rangesUnsupported = true;
+                throw new IOException("range requests are not supported by the server");
+            }
+            try (final InputStream in = connection.getInputStream()) {
+                final byte[] buffer = new byte[length];
+                final int read = IOUtils.read(in, buffer);
+                return read == length ? buffer : Arrays.copyOf(buffer, read);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.storage;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.util.text.StringUtil;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.storage.blob.BlobFileDraft;
+import com.microsoft.azure.toolkit.lib.storage.blob.IBlobFile;
+import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * recursive upload/download between local file system and a {@link StorageFile} (blob or file share) on a bounded worker pool.
+ * uploads skip remote files whose size matches and which are not older than the source, other existing remote files are
+ * reported to a {@link ConflictResolver} once and are not overwritten unless it says so. downloads are written to a
+ * {@link #PART_SUFFIX} file first and moved in place when complete, so an interrupted download never leaves a truncated file
+ * behind. a directory download is marked by a {@link #PART_SUFFIX} file next to it until it completes, only when resuming
+ * such an interrupted download, local files already downloaded by it are skipped.
+ */
+@Slf4j
+public class StorageFileTransfer {
+    public static final int DEFAULT_PARALLELISM = 4;
+    private static final String PART_SUFFIX = ".azpart";
+    private static final long REPORT_INTERVAL_MS = 200;
+
+    public enum ConflictResolution {
+        OVERWRITE, SKIP, CANCEL
+    }
+
+    @FunctionalInterface
+    public interface ConflictResolver {
+        /**
+         * @param conflicts paths of the existing remote files which would be overwritten.
+         */
+        @Nonnull
+        ConflictResolution resolve(@Nonnull List<String> conflicts);
+    }
+
+    private final Planner planner;
+    @Nonnull
+    private final ConflictResolver resolver;
+    @Nullable
+    private Path resumeMarker;
+    private boolean overwrite;
+    private final int parallelism = Math.max(1, Integer.getInteger("azure.storage.transfer.parallelism", DEFAULT_PARALLELISM));
+    private final List<Job> jobs = new ArrayList<>();
+    /**
+     * children (by name) of the remote directories visited when planning, each directory is listed once instead of
+     * looking its children up one by one.
+     */
+    private final Map<String, Map<String, StorageFile>> listings = new HashMap<>();
+    private final Set<Path> inFlightParts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong completedBytes = new AtomicLong();
+    private final AtomicInteger transferredFiles = new AtomicInteger();
+    private final AtomicInteger skippedFiles = new AtomicInteger();
+    @Getter
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    @Getter
+    private volatile boolean cancelled;
+    /**
+     * false if nothing is transferred because the upload is cancelled when resolving conflicts.
+     */
+    @Getter
+    private boolean started;
+    @Getter
+    private long totalBytes;
+    private long startedAt;
+    private long finishedAt;
+
+    private StorageFileTransfer(@Nonnull Planner planner, @Nonnull ConflictResolver resolver) {
+        this.planner = planner;
+        this.resolver = resolver;
+    }
+
+    /**
+     * upload local files and (recursively) folders into directory {@code target}.
+     *
+     * @param resolver decides (once for all of them) what to do with the existing remote files that would be overwritten.
+     */
+    public static StorageFileTransfer upload(@Nonnull List<Path> sources, @Nonnull StorageFile target, @Nonnull ConflictResolver resolver) {
+        return new StorageFileTransfer(t -> {
+            for (final Path source : sources) {
+                if (target instanceof IBlobFile) {
+                    t.planBlobUpload(source, target);
+                } else {
+                    t.planUpload(source, target);
+                }
+            }
+        }, resolver);
+    }
+
+    /**
+     * download {@code source} (a file or, recursively, a directory) into local directory {@code targetDir}, existing local
+     * files are overwritten.
+     */
+    public static StorageFileTransfer download(@Nonnull StorageFile source, @Nonnull Path targetDir) {
+        return new StorageFileTransfer(t -> {
+            if (source.isDirectory()) {
+                t.resumeMarker = targetDir.resolve(source.getName() + PART_SUFFIX);
+                final boolean resuming = Files.isRegularFile(t.resumeMarker);
+                Files.createDirectories(targetDir);
+                Files.write(t.resumeMarker, new byte[0]);
+                t.planDownload(source, targetDir, resuming);
+            } else {
+                t.planDownload(source, targetDir, false);
+            }
+        }, conflicts -> ConflictResolution.OVERWRITE);
+    }
+
+    public void run(@Nonnull ProgressIndicator indicator) {
+        indicator.setIndeterminate(true);
+        indicator.setText2("Collecting files to transfer");
+        try {
+            this.planner.plan(this);
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException("failed to collect files to transfer", e);
+        }
+        final List<String> conflicts = this.jobs.stream().filter(j -> j.conflict).map(j -> j.name).collect(Collectors.toList());
+        if (!conflicts.isEmpty()) {
+            final ConflictResolution resolution = this.resolver.resolve(conflicts);
+            if (resolution == ConflictResolution.CANCEL) {
+                this.cancelled = true;
+                return;
+            }
+            this.overwrite = resolution == ConflictResolution.OVERWRITE;
+        }
+        this.started = true;
+        this.totalBytes = this.jobs.stream().mapToLong(j -> j.size).sum();
+        this.startedAt = System.nanoTime();
+        indicator.setIndeterminate(false);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.parallelism, Math.max(1, this.jobs.size())), r -> {
+            final Thread thread = new Thread(r, "azure-storage-transfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final List<Future<?>> futures = this.jobs.stream().map(j -> executor.submit(() -> this.execute(j))).collect(Collectors.toList());
+        try {
+            while (!futures.stream().allMatch(Future::isDone)) {
+                if (indicator.isCanceled()) {
+                    this.cancelled = true;
+                    futures.forEach(f -> f.cancel(true));
+                    break;
+                }
+                this.report(indicator);
+                Thread.sleep(REPORT_INTERVAL_MS);
+            }
+        } catch (final InterruptedException e) {
+            this.cancelled = true;
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            this.finishedAt = System.nanoTime();
+        }
+        this.report(indicator);
+        if (Objects.nonNull(this.resumeMarker) && !this.cancelled && this.failures.isEmpty()) {
+            try {
+                Files.deleteIfExists(this.resumeMarker);
+            } catch (final IOException e) {
+                log.warn("failed to delete {}", this.resumeMarker, e);
+            }
+        }
+    }
+
+    public int getTotalFiles() {
+        return this.jobs.size();
+    }
+
+    public int getTransferredFiles() {
+        return this.transferredFiles.get();
+    }
+
+    public int getSkippedFiles() {
+        return this.skippedFiles.get();
+    }
+
+    /**
+     * @return bytes of completed (transferred or skipped) files plus bytes already written by in-flight downloads.
+     */
+    public long getProcessedBytes() {
+        long bytes = this.completedBytes.get();
+        for (final Path part : this.inFlightParts) {
+            try {
+                bytes += Files.size(part);
+            } catch (final IOException ignored) {
+                // part file is not created yet or has just been moved in place
+            }
+        }
+        return Math.min(bytes, this.totalBytes);
+    }
+
+    /**
+     * @return average throughput in bytes per second since the transfer started.
+     */
+    public long getThroughput() {
+        final long end = this.finishedAt > 0 ? this.finishedAt : System.nanoTime();
+        final long elapsedMs = Math.max(1, (end - this.startedAt) / 1_000_000);
+        return this.getProcessedBytes() * 1000 / elapsedMs;
+    }
+
+    private void report(@Nonnull ProgressIndicator indicator) {
+        final long processed = this.getProcessedBytes();
+        final int done = this.transferredFiles.get() + this.skippedFiles.get() + this.failures.size();
+        indicator.setFraction(this.totalBytes > 0 ? (double) processed / this.totalBytes : (double) done / Math.max(1, this.jobs.size()));
+        indicator.setText2(String.format("%d/%d file(s), %s of %s, %s/s", done, this.jobs.size(),
+            StringUtil.formatFileSize(processed), StringUtil.formatFileSize(this.totalBytes), StringUtil.formatFileSize(this.getThroughput())));
+    }
+
+    private void execute(@Nonnull Job job) {
+        if (this.cancelled || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            if ((!job.conflict || this.overwrite) && job.action.call()) {
+                this.transferredFiles.incrementAndGet();
+            } else {
+                this.skippedFiles.incrementAndGet();
+            }
+            this.completedBytes.addAndGet(job.size);
+        } catch (final Throwable e) {
+            if (!this.cancelled) {
+                log.warn("failed to transfer {}", job.name, e);
+                this.failures.add(String.format("%s: %s", job.name, e.getMessage()));
+            }
+        }
+    }
+
+    private void planUpload(@Nonnull Path source, @Nonnull StorageFile dir) throws IOException {
+        final String name = source.getFileName().toString();
+        if (Files.isDirectory(source)) {
+            final StorageFile subDir = this.ensureDirectory(dir, name);
+            try (final Stream<Path> children = Files.list(source)) {
+                for (final Path child : children.sorted().collect(Collectors.toList())) {
+                    this.planUpload(child, subDir);
+                }
+            }
+        } else if (Files.isRegularFile(source)) {
+            final StorageFile existing = this.findChild(dir, name);
+            this.addUploadJob(source, existing, () -> uploadFile(source, dir, name, existing));
+        }
+    }
+
+    /**
+     * blob "directories" are virtual, files are created with their relative path directly instead of creating directories first.
+     */
+    private void planBlobUpload(@Nonnull Path source, @Nonnull StorageFile root) throws IOException {
+        final Path base = Objects.requireNonNull(source.toAbsolutePath().getParent());
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (final Path file : files) {
+            final Path relative = base.relativize(file.toAbsolutePath());
+            final StorageFile existing = this.findBlob(root, relative);
+            this.addUploadJob(file, existing, () -> uploadBlob(file, root, relative, existing));
+        }
+    }
+
+    private void addUploadJob(@Nonnull Path source, @Nullable StorageFile existing, @Nonnull Callable<Boolean> upload) throws IOException {
+        final long size = Files.size(source);
+        if (isUnchanged(source, existing)) {
+            this.jobs.add(new Job(source.toString(), size, false, () -> false));
+        } else {
+            this.jobs.add(new Job(source.toString(), size, Objects.nonNull(existing), upload));
+        }
+    }
+
+    private void planDownload(@Nonnull StorageFile file, @Nonnull Path dir, boolean resuming) throws IOException {
+        if (file.isDirectory()) {
+            final Path subDir = dir.resolve(file.getName());
+            Files.createDirectories(subDir);
+            for (final StorageFile child : listAll(file)) {
+                this.planDownload(child, subDir, resuming);
+            }
+        } else {
+            final Path target = dir.resolve(file.getName());
+            if (resuming && isDownloaded(file, target)) {
+                this.jobs.add(new Job(file.getPath(), file.getSize(), false, () -> false));
+            } else {
+                this.jobs.add(new Job(file.getPath(), file.getSize(), false, () -> this.downloadFile(file, target)));
+            }
+        }
+    }
+
+    private static boolean uploadFile(@Nonnull Path source, @Nonnull StorageFile dir, @Nonnull String name, @Nullable StorageFile existing) {
+        if (Objects.nonNull(existing)) {
+            overwrite(existing, source);
+        } else {
+            final StorageFile.Draft<?, ?> draft = (StorageFile.Draft<?, ?>) dir.getSubFileModule().create(name, "");
+            draft.setSourceFile(source);
+            draft.createIfNotExist();
+        }
+        return true;
+    }
+
+    private static boolean uploadBlob(@Nonnull Path source, @Nonnull StorageFile root, @Nonnull Path relative, @Nullable StorageFile existing) {
+        if (Objects.nonNull(existing)) {
+            overwrite(existing, source);
+            return true;
+        }
+        StorageFile current = root;
+        int i = 0;
+        for (; i < relative.getNameCount() - 1; i++) {
+            final StorageFile next = getChild(current, relative.getName(i).toString());
+            if (Objects.isNull(next)) {
+                break;
+            }
+            current = next;
+        }
+        final Path rest = relative.subpath(i, relative.getNameCount());
+        final BlobFileDraft draft = (BlobFileDraft) current.getSubFileModule().create(rest.getName(0).toString(), "");
+        draft.setRelativePath(FilenameUtils.separatorsToUnix(rest.toString()));
+        draft.setDirectory(rest.getNameCount() > 1);
+        draft.setSourceFile(source);
+        draft.createIfNotExist();
+        return true;
+    }
+
+    private boolean downloadFile(@Nonnull StorageFile file, @Nonnull Path target) throws IOException {
+        final OffsetDateTime lastModified = file.getLastModified();
+        final Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        Files.deleteIfExists(part);
+        this.inFlightParts.add(part);
+        try {
+            file.download(part);
+            try {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (Objects.nonNull(lastModified)) {
+                Files.setLastModifiedTime(target, FileTime.from(lastModified.toInstant()));
+            }
+        } finally {
+            this.inFlightParts.remove(part);
+            Files.deleteIfExists(part);
+        }
+        return true;
+    }
+
+    /**
+     * a file downloaded by this transfer has the size and (see {@link #downloadFile}) exactly the last modified time of the remote file.
+     */
+    private static boolean isDownloaded(@Nonnull StorageFile file, @Nonnull Path target) throws IOException {
+        final OffsetDateTime lastModified = file.getLastModified();
+        return Objects.nonNull(lastModified) && Files.isRegularFile(target) && Files.size(target) == file.getSize() &&
+            Files.getLastModifiedTime(target).toMillis() == lastModified.toInstant().toEpochMilli();
+    }
+
+    private static boolean isUnchanged(@Nonnull Path source, @Nullable StorageFile remote) throws IOException {
+        if (Objects.isNull(remote) || remote.isDirectory() || remote.getSize() != Files.size(source)) {
+            return false;
+        }
+        final OffsetDateTime lastModified = remote.getLastModified();
+        return Objects.nonNull(lastModified) && !lastModified.toInstant().isBefore(Files.getLastModifiedTime(source).toInstant());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void overwrite(@Nonnull StorageFile file, @Nonnull Path source) {
+        final StorageFile.Draft<? extends StorageFile, ?> draft = (StorageFile.Draft<? extends StorageFile, ?>) ((AbstractAzResource) file).update();
+        draft.setSourceFile(source);
+        draft.updateIfExist();
+    }
+
+    @Nonnull
+    private StorageFile ensureDirectory(@Nonnull StorageFile parent, @Nonnull String name) {
+        final StorageFile existing = this.findChild(parent, name);
+        if (Objects.nonNull(existing)) {
+            return existing;
+        }
+        final StorageFile.Draft<?, ?> draft = (StorageFile.Draft<?, ?>) parent.getSubFileModule().create(name, "");
+        draft.setDirectory(true);
+        draft.createIfNotExist();
+        final StorageFile created = Objects.requireNonNull(getChild(parent, name), () -> String.format("directory (%s) is not created", name));
+        this.listing(parent).put(name, created);
+        // a directory just created is empty, no need to list it
+        this.listings.put(created.getId(), new HashMap<>());
+        return created;
+    }
+
+    @Nullable
+    private StorageFile findBlob(@Nonnull StorageFile root, @Nonnull Path relative) {
+        StorageFile current = root;
+        for (int i = 0; i < relative.getNameCount() && Objects.nonNull(current); i++) {
+            current = this.findChild(current, relative.getName(i).toString());
+        }
+        return current;
+    }
+
+    @Nullable
+    private StorageFile findChild(@Nonnull StorageFile dir, @Nonnull String name) {
+        return this.listing(dir).get(name);
+    }
+
+    @Nonnull
+    private Map<String, StorageFile> listing(@Nonnull StorageFile dir) {
+        return this.listings.computeIfAbsent(dir.getId(), id -> listAll(dir).stream()
+            .collect(Collectors.toMap(StorageFile::getName, f -> f, (a, b) -> a, HashMap::new)));
+    }
+
+    @Nullable
+    private static StorageFile getChild(@Nonnull StorageFile dir, @Nonnull String name) {
+        return dir.getSubFileModule().get(name, dir.getResourceGroupName());
+    }
+
+    private static List<StorageFile> listAll(@Nonnull StorageFile dir) {
+        final AbstractAzResourceModule<? extends StorageFile, ? extends StorageFile, ?> module = dir.getSubFileModule();
+        while (module.hasMoreResources()) {
+            module.loadMoreResources();
+        }
+        return new ArrayList<>(module.list());
+    }
+
+    @FunctionalInterface
+    private interface Planner {
+        void plan(StorageFileTransfer transfer) throws IOException;
+    }
+
+    @RequiredArgsConstructor
+    private static class Job {
+        private final String name;
+        private final long size;
+        // the remote file exists (and differs from the source), it's overwritten only if the user agreed.
+        private final boolean conflict;
+        // returns false if the file is skipped because it's unchanged
+        private final Callable<Boolean> action;
+    }
+}
@@ -28,13 +28,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.intellij.connector.dotazure.AzureModule.CONNECTIONS_FILE;
@@ -48,7 +50,11 @@ public class ConnectionManager {
     private static final String FIELD_TYPE = "type";
     public static final String FIELD_ID = "id";
     private static Map<String, ConnectionDefinition<?, ?>> definitions = null;
-    private final Set<Connection<?, ?>> connections = new LinkedHashSet<>();
+    /**
+     * immutable snapshot of connections and their indexes, replaced as a whole on every change so that reads
+     * (e.g. from line markers and completion contributors) need no locking.
+     */
+    private volatile Index index = Index.EMPTY;
     @Getter
     private final Profile profile;
     @Getter
@@ -93,7 +99,7 @@ public class ConnectionManager {
         final List<Connection<?, ?>> connections = AzureModule.createIfSupport(config)
             .map(AzureModule::getDefaultProfile)
             .map(Profile::getConnectionManager)
-                .map(ConnectionManager::getConnections).orElse(Collections.emptyList());
+            .map(m -> m.index.connections).orElse(Collections.emptyList());
         return connections.stream().filter(c -> c.isApplicableFor(config)).collect(Collectors.toList());
     }
 
@@ -115,24 +121,33 @@ public class ConnectionManager {
     @AzureOperation(name = "internal/connector.add_connection")
     public synchronized void addConnection(Connection<?, ?> connection) {
         connection.setProfile(this.profile);
-        connections.add(connection);
+        this.index = this.index.add(connection);
     }
 
     @AzureOperation(name = "internal/connector.remove_connection")
     public synchronized void removeConnection(Connection<?, ?> connection) {
-        connections.removeIf(c -> StringUtils.equals(connection.getId(), c.getId()));
+        this.index = this.index.removeById(connection.getId());
     }
 
     public List<Connection<?, ?>> getConnections() {
-        return new ArrayList<>(connections);
+        return new ArrayList<>(this.index.connections);
+    }
+
+    @Nullable
+    public Connection<?, ?> getConnectionById(String id) {
+        return this.index.byId.getOrDefault(id, Collections.emptyList()).stream().findFirst().orElse(null);
     }
 
     public List<Connection<?, ?>> getConnectionsByResourceId(String id) {
-        return connections.stream().filter(e -> StringUtils.equals(id, e.getResource().getId())).collect(Collectors.toList());
+        return this.index.byResourceId.getOrDefault(id, Collections.emptyList());
     }
 
     public List<Connection<?, ?>> getConnectionsByConsumerId(String id) {
-        return connections.stream().filter(e -> StringUtils.equals(id, e.getConsumer().getId())).collect(Collectors.toList());
+        return this.index.byConsumerId.getOrDefault(id, Collections.emptyList());
+    }
+
+    public List<Connection<?, ?>> getConnectionsByDefinition(@Nonnull ConnectionDefinition<?, ?> definition) {
+        return this.index.byDefinition.getOrDefault(getName(definition), Collections.emptyList());
     }
 
     @Nullable
@@ -144,7 +159,7 @@ public class ConnectionManager {
     @AzureOperation(name = "boundary/connector.save_connections")
     void save() throws IOException {
         final Element connectionsEle = new Element(ELEMENT_NAME_CONNECTIONS);
-        for (final Connection<?, ?> connection : this.connections) {
+        for (final Connection<?, ?> connection : this.index.connections) {
             final Element connectionEle = new Element(ELEMENT_NAME_CONNECTION);
             connectionEle.setAttribute(FIELD_ID, connection.getId());
             connectionEle.setAttribute(FIELD_TYPE, ConnectionManager.getName(connection.getDefinition()));
@@ -167,15 +182,76 @@ public class ConnectionManager {
         final Element connectionsEle = JDOMUtil.load(connectionsFile.toNioPath());
         final Profile profile = this.getProfile();
         final ResourceManager resourceManager = profile.getResourceManager();
-        this.connections.clear();
+        final List<Connection<?, ?>> connections = new ArrayList<>();
         for (final Element connectionEle : connectionsEle.getChildren()) {
             final String name = connectionEle.getAttributeValue(FIELD_TYPE);
             final ConnectionDefinition<?, ?> definition = ConnectionManager.getDefinitionOrDefault(name);
             try {
-                Optional.ofNullable(definition).map(d -> d.read(resourceManager, connectionEle)).ifPresent(this::addConnection);
+                Optional.ofNullable(definition).map(d -> d.read(resourceManager, connectionEle)).ifPresent(c -> {
+                    c.setProfile(profile);
+                    connections.add(c);
+                });
             } catch (final Exception e) {
                 log.warn(String.format("error occurs when load a resource connection of type '%s'", name), e);
             }
         }
+        // index all loaded connections at once rather than copying the snapshot for each of them
+        synchronized (this) {
+            this.index = new Index(connections);
+        }
+    }
+
+    /**
+     * connections are indexed by the keys they had when added, connections modified in place (e.g. by the connector
+     * dialog) are re-indexed when they are updated through {@link Profile#createOrUpdateConnection(Connection)}.
+     */
+    private static class Index {
+        private static final Index EMPTY = new Index(Collections.emptyList());
+
+        private final List<Connection<?, ?>> connections;
+        private final Map<String, List<Connection<?, ?>>> byId;
+        private final Map<String, List<Connection<?, ?>>> byResourceId;
+        private final Map<String, List<Connection<?, ?>>> byConsumerId;
+        private final Map<String, List<Connection<?, ?>>> byDefinition;
+
+        private Index(@Nonnull Collection<Connection<?, ?>> connections) {
+            // keep the set semantic (and insertion order) of the connections
+            this.connections = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(connections)));
+            this.byId = groupBy(this.connections, Connection::getId);
+            this.byResourceId = groupBy(this.connections, c -> c.getResource().getId());
+            this.byConsumerId = groupBy(this.connections, c -> c.getConsumer().getId());
+            this.byDefinition = groupBy(this.connections, c -> getName(c.getDefinition()));
+        }
+
+        @Nonnull
+        private Index add(@Nonnull Connection<?, ?> connection) {
+            if (this.byId.getOrDefault(connection.getId(), Collections.emptyList()).contains(connection)) {
+                return this;
+            }
+            final List<Connection<?, ?>> result = new ArrayList<>(this.connections);
+            result.add(connection);
+            return new Index(result);
+        }
+
+        @Nonnull
+        private Index removeById(@Nullable String id) {
+            if (!this.byId.containsKey(id)) {
+                return this;
+            }
+            final List<Connection<?, ?>> result = new ArrayList<>(this.connections);
+            result.removeIf(c -> StringUtils.equals(id, c.getId()));
+            return new Index(result);
+        }
+
+        @Nonnull
+        private static Map<String, List<Connection<?, ?>>> groupBy(@Nonnull List<Connection<?, ?>> connections,
+                                                                   @Nonnull Function<Connection<?, ?>, String> key) {
+            final Map<String, List<Connection<?, ?>>> result = new HashMap<>();
+            for (final Connection<?, ?> connection : connections) {
+                result.computeIfAbsent(key.apply(connection), k -> new ArrayList<>()).add(connection);
+            }
+            result.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            return result;
+        }
     }
 }
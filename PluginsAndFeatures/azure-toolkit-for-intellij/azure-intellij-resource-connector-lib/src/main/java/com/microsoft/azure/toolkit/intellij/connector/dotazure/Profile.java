@@ -12,6 +12,7 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.microsoft.azure.toolkit.intellij.connector.Connection;
 import com.microsoft.azure.toolkit.intellij.connector.ConnectionTopics;
 import com.microsoft.azure.toolkit.intellij.connector.DeploymentTargetTopics;
+import com.microsoft.azure.toolkit.intellij.connector.ResourceConnectionActionsContributor;
 import com.microsoft.azure.toolkit.intellij.facet.AzureFacet;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
@@ -22,16 +23,19 @@ import com.microsoft.azure.toolkit.lib.common.operation.OperationBundle;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import io.github.cdimascio.dotenv.internal.DotenvParser;
 import io.github.cdimascio.dotenv.internal.DotenvReader;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import rx.Completable;
 import rx.Observable;
 import rx.schedulers.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -40,8 +44,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.intellij.connector.ConnectionTopics.CONNECTION_CHANGED;
@@ -49,6 +57,7 @@ import static com.microsoft.azure.toolkit.intellij.connector.dotazure.AzureModul
 
 @Getter
 public class Profile {
+    private static final long CONNECTION_VALIDATION_TTL = TimeUnit.MINUTES.toMillis(10);
     @Nonnull
     private final String name;
     @Nonnull
@@ -63,6 +72,14 @@ public class Profile {
     private final DeploymentTargetManager deploymentTargetManager;
     @Nullable
     private VirtualFile dotEnvFile;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Pair<String, List<Pair<String, String>>>> envCache = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean validating = new AtomicBoolean(false);
+    @Getter(AccessLevel.NONE)
+    private volatile String validatedStamp;
+    @Getter(AccessLevel.NONE)
+    private volatile long validatedAt;
 
     public Profile(@Nonnull String name, @Nonnull VirtualFile profileDir, @Nonnull AzureModule module) {
         this.name = name;
@@ -84,6 +101,81 @@ public class Profile {
         return parser.parse().stream().map(e -> Pair.of(e.getKey(), e.getValue())).toList();
     }
 
+    /**
+     * same as {@link #load(VirtualFile)}, but the parsed result is reused until {@code dotEnv} is modified.
+     */
+    public List<Pair<String, String>> loadCached(@Nonnull VirtualFile dotEnv) {
+        final String stamp = getStamp(dotEnv);
+        final Pair<String, List<Pair<String, String>>> cached = this.envCache.get(dotEnv.getPath());
+        if (Objects.nonNull(cached) && StringUtils.equals(cached.getKey(), stamp)) {
+            return cached.getValue();
+        }
+        final List<Pair<String, String>> env = load(dotEnv);
+        this.envCache.put(dotEnv.getPath(), Pair.of(stamp, env));
+        return env;
+    }
+
+    /**
+     * validate (and fix) connections if connections/resources changed since last validation, blocking until done.
+     * if nothing changed but the last validation is older than {@link #CONNECTION_VALIDATION_TTL}, re-validate
+     * in background and return immediately.
+     */
+    public void validateConnectionsIfNeeded() {
+        final boolean unchanged = StringUtils.equals(this.validatedStamp, this.getConnectionsStamp());
+        if (unchanged && System.currentTimeMillis() - this.validatedAt < CONNECTION_VALIDATION_TTL) {
+            return;
+        }
+        if (unchanged) {
+            if (this.validating.compareAndSet(false, true)) {
+                AzureTaskManager.getInstance().runOnPooledThread(() -> {
+                    try {
+                        this.validateConnections();
+                    } finally {
+                        this.validating.set(false);
+                    }
+                });
+            }
+            return;
+        }
+        this.validateConnections();
+    }
+
+    private void validateConnections() {
+        final Project project = this.module.getProject();
+        final String stamp = this.getConnectionsStamp();
+        final List<Connection<?, ?>> invalid = this.getConnections().stream()
+            .filter(c -> !c.validate(project))
+            .collect(Collectors.toList());
+        final List<Completable> completables = invalid.stream()
+            .map(c -> ResourceConnectionActionsContributor.fixResourceConnection(c, project))
+            .filter(Objects::nonNull)
+            .map(Observable::toCompletable)
+            .collect(Collectors.toList());
+        // wait for all connection has been saved to .env)
+        final Throwable error = Completable.merge(completables).get();
+        // don't skip validation for the TTL if any fix failed or was declined, check again next time
+        final boolean allFixed = Objects.isNull(error) && invalid.stream()
+            .map(c -> this.connectionManager.getConnectionById(c.getId()))
+            .allMatch(c -> Objects.isNull(c) || c.validate(project));
+        if (allFixed) {
+            this.validatedStamp = invalid.isEmpty() ? stamp : this.getConnectionsStamp();
+            this.validatedAt = System.currentTimeMillis();
+        }
+    }
+
+    private String getConnectionsStamp() {
+        return getStamp(this.profileDir.findChild(AzureModule.CONNECTIONS_FILE)) + "|" + getStamp(this.profileDir.findChild(AzureModule.RESOURCES_FILE));
+    }
+
+    private static String getStamp(@Nullable VirtualFile file) {
+        if (Objects.isNull(file) || !file.isValid()) {
+            return "-";
+        }
+        // VFS stamp may lag behind writes done through java.nio (e.g. appending to .env), so also check the disk.
+        final File ioFile = new File(file.getPath());
+        return String.format("%s:%s:%s", file.getModificationStamp(), ioFile.lastModified(), ioFile.length());
+    }
+
     public synchronized Profile addApp(@Nonnull final AbstractAzResource<?, ?, ?> app) {
         this.getDeploymentTargetManager().addTarget(app.getId());
         final Project project = this.module.getProject();
@@ -122,7 +214,7 @@ public class Profile {
 
     public synchronized Observable<?> createOrUpdateConnection(@Nonnull Connection<?, ?> connection) {
         // Remove old connection
-        this.getConnections().stream().filter(c -> c.getId().equals(connection.getId())).findFirst().ifPresent(this::removeConnection);
+        Optional.ofNullable(this.connectionManager.getConnectionById(connection.getId())).ifPresent(this::removeConnection);
         return this.addConnection(connection);
     }
 
@@ -29,6 +29,7 @@ import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureSdkFeatureEntity
 import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureSdkServiceEntity;
 import com.microsoft.azure.toolkit.intellij.azuresdk.service.AzureSdkCategoryService;
 import com.microsoft.azure.toolkit.intellij.azuresdk.service.AzureSdkLibraryService;
+import com.microsoft.azure.toolkit.intellij.azuresdk.service.AzureSdkSearchIndex;
 import com.microsoft.azure.toolkit.intellij.common.TextDocumentListenerAdapter;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -59,6 +60,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -76,6 +78,10 @@ public class AzureSdkTreePanel implements TextDocumentListenerAdapter {
     private DefaultTreeModel model;
     private List<? extends AzureSdkServiceEntity> services;
     private Map<String, List<AzureSdkCategoryEntity>> categories;
+    @Nullable
+    private AzureSdkSearchIndex searchIndex;
+    @Nullable
+    private Set<String> matchedTexts;
     private TreePath lastNodePath;
 
     public AzureSdkTreePanel() {
@@ -134,10 +140,14 @@ public class AzureSdkTreePanel implements TextDocumentListenerAdapter {
     }
 
     private void filter(final String text) {
-        final String[] filters = Arrays.stream(text.split("\\s+")).filter(StringUtils::isNoneBlank).map(String::toLowerCase).toArray(String[]::new);
+        final String[] filters = toFilters(text);
         AzureTaskManager.getInstance().runLater(() -> this.loadData(this.categories, this.services, filters));
     }
 
+    private static String[] toFilters(final String text) {
+        return Arrays.stream(StringUtils.defaultString(text).split("\\s+")).filter(StringUtils::isNoneBlank).map(String::toLowerCase).toArray(String[]::new);
+    }
+
     public synchronized void refresh(boolean... force) {
         try {
             if (ArrayUtils.isNotEmpty(force) && force[0]) {
@@ -145,8 +155,9 @@ public class AzureSdkTreePanel implements TextDocumentListenerAdapter {
             }
             this.services = AzureSdkLibraryService.loadAzureSdkServices();
             this.categories = AzureSdkCategoryService.loadAzureSDKCategories();
+            this.searchIndex = AzureSdkLibraryService.loadAzureSdkSearchIndex();
             this.fillDescriptionFromCategoryIfMissing(this.categories, this.services);
-            AzureTaskManager.getInstance().runAndWait(() -> this.loadData(this.categories, this.services, this.searchBox.getText()), AzureTask.Modality.ANY);
+            AzureTaskManager.getInstance().runAndWait(() -> this.loadData(this.categories, this.services, toFilters(this.searchBox.getText())), AzureTask.Modality.ANY);
             Optional.ofNullable(this.lastNodePath).ifPresent(p -> AzureTaskManager.getInstance().runAndWait(() -> TreeUtil.selectPath(this.tree, p)));
             AzureEventBus.emit("reference.refresh");
         } catch (final IOException e) {
@@ -170,6 +181,7 @@ public class AzureSdkTreePanel implements TextDocumentListenerAdapter {
     private void loadData(final Map<String, List<AzureSdkCategoryEntity>> categoryToServiceMap, final List<? extends AzureSdkServiceEntity> services, String... filters) {
         final DefaultMutableTreeNode root = (DefaultMutableTreeNode) this.model.getRoot();
         root.removeAllChildren();
+        this.matchedTexts = Optional.ofNullable(this.searchIndex).map(index -> index.search(filters)).orElse(null);
         final Map<String, AzureSdkServiceEntity> serviceMap = services.stream().collect(Collectors.toMap(e -> getServiceKeyByName(e.getName()), e -> e));
         final List<String> categories = categoryToServiceMap.keySet().stream().filter(StringUtils::isNotBlank).sorted(
                 (s1, s2) -> StringUtils.contains(s1, "Others") ? 1 : StringUtils.contains(s2, "Others") ? -1 : s1.compareTo(s2)).collect(Collectors.toList());
@@ -237,6 +249,12 @@ public class AzureSdkTreePanel implements TextDocumentListenerAdapter {
     }
 
     private boolean isMatchedFilters(String content, String... filters) {
+        if (ArrayUtils.isEmpty(filters)) {
+            return true;
+        }
+        if (Objects.nonNull(this.matchedTexts)) {
+            return this.matchedTexts.contains(content);
+        }
         return Arrays.stream(filters).allMatch(f -> StringUtils.containsIgnoreCase(content, f));
     }
 
@@ -35,6 +35,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -63,6 +64,37 @@ public class AzureSdkLibraryService {
         return services.values().stream().sorted(Comparator.comparing(AzureSdkServiceEntity::getName)).collect(Collectors.toList());
     }
 
+    /**
+     * search index over category, service and feature names, built together with the cached sdk metadata.
+     */
+    @Cacheable(value = "sdk/services/index")
+    public static AzureSdkSearchIndex loadAzureSdkSearchIndex() throws IOException {
+        final List<String> texts = new ArrayList<>();
+        for (final AzureSdkServiceEntity service : loadAzureSdkServices()) {
+            texts.add(service.getName());
+            Optional.ofNullable(service.getContent()).ifPresent(features -> features.forEach(f -> texts.add(f.getName())));
+        }
+        texts.addAll(AzureSdkCategoryService.loadAzureSDKCategories().keySet());
+        return new AzureSdkSearchIndex(texts);
+    }
+
+    /**
+     * sdk entities keyed by lower-cased "groupId:artifactId", only entities with type are indexed.
+     */
+    @Cacheable("sdk/packages/index")
+    public static Map<String, AzureJavaSdkEntity> loadAzureSDKEntityIndex() {
+        final Map<String, AzureJavaSdkEntity> index = new HashMap<>();
+        loadAzureSDKEntities().stream()
+                .filter(entity -> StringUtils.isNotEmpty(entity.getType()))
+                .forEachOrdered(entity -> index.putIfAbsent(toLibraryKey(entity.getGroupId(), entity.getArtifactId()), entity));
+        return index;
+    }
+
+    @Nonnull
+    public static String toLibraryKey(final String groupId, final String artifactId) {
+        return String.format("%s:%s", StringUtils.lowerCase(StringUtils.defaultString(groupId)), StringUtils.lowerCase(StringUtils.defaultString(artifactId)));
+    }
+
     private static void addClientLibs(Map<String, AzureSdkServiceEntity> services) {
         getClientLibs().stream()
                 .sorted(Comparator.comparing(AzureJavaSdkEntity::getServiceName))
@@ -239,7 +271,9 @@ public class AzureSdkLibraryService {
     public static void refresh() {
         try {
             CacheManager.evictCache("sdk/services", CacheEvict.ALL);
+            CacheManager.evictCache("sdk/services/index", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages", CacheEvict.ALL);
+            CacheManager.evictCache("sdk/packages/index", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages/spring", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages/whitelist", CacheEvict.ALL);
         } catch (final ExecutionException e) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.azuresdk.service;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * inverted index from whitespace separated (lower-cased) tokens to the texts (category/service/feature names) containing them.
+ * a filter without whitespace is contained in a text iff it is contained in one of the text's tokens, so a query only
+ * scans the distinct tokens instead of every entity.
+ */
+public class AzureSdkSearchIndex {
+    private final Map<String, Set<String>> tokenToTexts = new HashMap<>();
+
+    public AzureSdkSearchIndex(@Nonnull final Collection<String> texts) {
+        texts.stream().filter(StringUtils::isNotBlank).distinct().forEach(text ->
+            Arrays.stream(text.toLowerCase().split("\\s+")).filter(StringUtils::isNotBlank)
+                .forEach(token -> this.tokenToTexts.computeIfAbsent(token, k -> new HashSet<>()).add(text)));
+    }
+
+    /**
+     * @return texts containing all the given filters, or {@code null} if there is no filter at all.
+     */
+    @Nullable
+    public Set<String> search(final String... filters) {
+        Set<String> result = null;
+        for (final String filter : filters) {
+            final String f = filter.toLowerCase();
+            final Set<String> matched = this.tokenToTexts.entrySet().stream()
+                .filter(e -> e.getKey().contains(f))
+                .flatMap(e -> e.getValue().stream())
+                .collect(Collectors.toSet());
+            if (result == null) {
+                result = matched;
+            } else {
+                result.retainAll(matched);
+            }
+            if (result.isEmpty()) {
+                return Collections.emptySet();
+            }
+        }
+        return result;
+    }
+}
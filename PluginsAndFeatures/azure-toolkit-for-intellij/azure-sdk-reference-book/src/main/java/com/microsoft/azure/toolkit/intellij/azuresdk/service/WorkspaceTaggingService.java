@@ -21,7 +21,12 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public class WorkspaceTaggingService {
 
@@ -37,22 +42,34 @@ public class WorkspaceTaggingService {
     }
 
     private static String getAzureDependencyTag(final String groupId, final String artifactId) {
-        return AzureSdkLibraryService.loadAzureSDKEntities()
-            .stream()
-            .filter(entity -> StringUtils.isNotEmpty(entity.getType())
-                && StringUtils.equalsIgnoreCase(entity.getGroupId(), groupId)
-                && StringUtils.equalsIgnoreCase(entity.getArtifactId(), artifactId))
-            .map(AzureJavaSdkEntity::getType)
-            .findFirst().orElse(null);
+        final AzureJavaSdkEntity entity = AzureSdkLibraryService.loadAzureSDKEntityIndex().get(AzureSdkLibraryService.toLibraryKey(groupId, artifactId));
+        return Optional.ofNullable(entity).map(AzureJavaSdkEntity::getType).orElse(null);
     }
 
     private static String getExternalDependencyTag(final String groupId, final String artifactId) {
-        return getWorkspaceTagEntities()
-            .stream()
-            .filter(entity -> (StringUtils.isEmpty(entity.getGroupId()) || StringUtils.equalsIgnoreCase(entity.getGroupId(), groupId))
-                && (StringUtils.isEmpty(entity.getArtifactId()) || StringUtils.equalsIgnoreCase(entity.getArtifactId(), artifactId)))
-            .map(WorkspaceTagEntity::getTag)
-            .findFirst().orElse(null);
+        final Map<String, Integer> index = getWorkspaceTagIndex();
+        // empty groupId/artifactId in workspace tag entities act as wildcards, the first declared match wins
+        return Stream.of(AzureSdkLibraryService.toLibraryKey(groupId, artifactId), AzureSdkLibraryService.toLibraryKey(groupId, null),
+                AzureSdkLibraryService.toLibraryKey(null, artifactId), AzureSdkLibraryService.toLibraryKey(null, null))
+            .map(index::get)
+            .filter(Objects::nonNull)
+            .min(Integer::compare)
+            .map(i -> getWorkspaceTagEntities().get(i).getTag())
+            .orElse(null);
+    }
+
+    /**
+     * position of the first workspace tag entity declared for each lower-cased "groupId:artifactId" key.
+     */
+    @Cacheable(value = "workspace-tag/index")
+    public static Map<String, Integer> getWorkspaceTagIndex() {
+        final List<WorkspaceTagEntity> entities = getWorkspaceTagEntities();
+        final Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            final WorkspaceTagEntity entity = entities.get(i);
+            index.putIfAbsent(AzureSdkLibraryService.toLibraryKey(entity.getGroupId(), entity.getArtifactId()), i);
+        }
+        return index;
     }
 
     @Preload
@@ -15,7 +15,9 @@ import com.microsoft.azure.hdinsight.sdk.common.azure.serverless.AzureSparkCosmo
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import com.microsoft.intellij.rxjava.IdeaSchedulers;
+import rx.Subscription;
 import rx.functions.Action1;
 
 import java.awt.event.WindowAdapter;
@@ -25,6 +27,8 @@ public class CosmosSparkClusterUpdateDialog extends CosmosSparkProvisionDialog i
 
     @NotNull
     private CosmosSparkClusterUpdateCtrlProvider ctrlProvider;
+    @Nullable
+    private Subscription updateSubscription;
     private static final String AU_WARNING_TIP = "Currently, there are not enough available AU for your serverless cluster Updating. "
         + "Please adjust your cluster configuration or the updating request will be submitted into the queue with PENDING status.";
 
@@ -82,9 +86,19 @@ public class CosmosSparkClusterUpdateDialog extends CosmosSparkProvisionDialog i
         final Action1<CosmosSparkClusterProvisionSettingsModel> onNext =
             toUpdate -> AzureTaskManager.getInstance().runAndWait(() -> close(OK_EXIT_CODE), AzureTask.Modality.ANY);
         final Action1<Throwable> onError = err -> log().warn("Error update a cluster. " + err.toString());
-        ctrlProvider
+        updateSubscription = ctrlProvider
                 .validateAndUpdate()
                 .doOnEach(notification -> getOKAction().setEnabled(true))
                 .subscribe(onNext, onError);
     }
+
+    @Override
+    public void doCancelAction() {
+        // Stop waiting for an update queued until the cluster is stable, the update itself stays queued
+        if (updateSubscription != null) {
+            updateSubscription.unsubscribe();
+        }
+
+        super.doCancelAction();
+    }
 }
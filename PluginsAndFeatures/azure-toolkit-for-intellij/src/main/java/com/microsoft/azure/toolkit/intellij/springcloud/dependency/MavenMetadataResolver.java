@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.springcloud.dependency;
+
+import com.intellij.openapi.application.PathManager;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.DocumentHelper;
+import org.dom4j.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves available versions of artifacts from the {@code maven-metadata.xml} of a maven repository.
+ * Metadata is fetched in parallel (at most {@link #MAX_CONCURRENT_FETCHES} at a time). Resolved versions are kept in
+ * memory and reused without any request within {@link #FRESH_TTL_MS}. Metadata fetched over http(s) is also cached on
+ * disk, and a cached copy is always revalidated by ETag/Last-Modified (conditional GET) before it's reused.
+ */
+public class MavenMetadataResolver {
+    public static final String DEFAULT_REPOSITORY_URL = "https://repo1.maven.org/maven2/";
+    private static final int MAX_CONCURRENT_FETCHES = 6;
+    private static final long FRESH_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final int TIMEOUT_MS = 15 * 1000;
+    private static final String METADATA_FILE = "maven-metadata.xml";
+    private static final String VALIDATORS_FILE = "maven-metadata.properties";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_CONCURRENT_FETCHES, r -> {
+        final Thread thread = new Thread(r, "azure-maven-metadata-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static MavenMetadataResolver instance;
+
+    private final String repositoryUrl;
+    private final Path cacheDir;
+    private final Map<String, ArtifactVersions> memoryCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param repositoryUrl base url of the maven repository, e.g. {@link #DEFAULT_REPOSITORY_URL} or a {@code file:} url of a local repository
+     * @param cacheDir      directory to cache the fetched metadata
+     */
+    public MavenMetadataResolver(String repositoryUrl, Path cacheDir) {
+        this.repositoryUrl = StringUtils.appendIfMissing(repositoryUrl, "/");
+        this.cacheDir = cacheDir;
+    }
+
+    public static synchronized MavenMetadataResolver getInstance() {
+        if (instance == null) {
+            final String repository = System.getProperty("azure.maven.repository", DEFAULT_REPOSITORY_URL);
+            instance = new MavenMetadataResolver(repository, Paths.get(PathManager.getSystemPath(), "azure-toolkit", "maven-metadata"));
+        }
+        return instance;
+    }
+
+    /**
+     * resolve versions of all the given artifacts in parallel.
+     *
+     * @return versions keyed by {@link DependencyArtifact#getKey()}
+     */
+    public Map<String, ArtifactVersions> getVersions(Collection<DependencyArtifact> artifacts) throws AzureExecutionException, IOException, DocumentException {
+        final Map<String, CompletableFuture<ArtifactVersions>> futures = new LinkedHashMap<>();
+        for (final DependencyArtifact artifact : artifacts) {
+            futures.computeIfAbsent(artifact.getKey(), k -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return getVersions(artifact.getGroupId(), artifact.getArtifactId());
+                } catch (AzureExecutionException | IOException | DocumentException e) {
+                    throw new CompletionException(e);
+                }
+            }, EXECUTOR));
+        }
+        final Map<String, ArtifactVersions> result = new HashMap<>();
+        for (final Map.Entry<String, CompletableFuture<ArtifactVersions>> entry : futures.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().join());
+            } catch (final CompletionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof AzureExecutionException) {
+                    throw (AzureExecutionException) cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof DocumentException) {
+                    throw (DocumentException) cause;
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    public ArtifactVersions getVersions(String groupId, String artifactId) throws AzureExecutionException, IOException, DocumentException {
+        final String key = groupId + ":" + artifactId;
+        final ArtifactVersions cached = memoryCache.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.resolvedAt < FRESH_TTL_MS) {
+            return cached;
+        }
+        final ArtifactVersions versions = new ArtifactVersions(parseVersions(fetchMetadata(groupId, artifactId)));
+        if (versions.getVersions().isEmpty()) {
+            throw new AzureExecutionException((String.format("Cannot get version from maven central for: %s:%s.", groupId, artifactId)));
+        }
+        memoryCache.put(key, versions);
+        return versions;
+    }
+
+    private String fetchMetadata(String groupId, String artifactId) throws IOException {
+        final String relativePath = String.format("%s/%s/%s", StringUtils.replace(groupId, ".", "/"), artifactId, METADATA_FILE);
+        final URL url = new URL(repositoryUrl + relativePath);
+        final Path cachedDir = cacheDir.resolve(StringUtils.replace(groupId, ".", "/")).resolve(artifactId);
+        final Path cachedMetadata = cachedDir.resolve(METADATA_FILE);
+        final Path cachedValidators = cachedDir.resolve(VALIDATORS_FILE);
+        final Properties validators = new Properties();
+        if (Files.isRegularFile(cachedMetadata) && Files.isRegularFile(cachedValidators)) {
+            try (InputStream in = Files.newInputStream(cachedValidators)) {
+                validators.load(in);
+            }
+        }
+
+        final URLConnection conn = url.openConnection();
+        conn.setConnectTimeout(TIMEOUT_MS);
+        conn.setReadTimeout(TIMEOUT_MS);
+        if (!(conn instanceof HttpURLConnection)) {
+            // e.g. file based repository, nothing to cache
+            try (InputStream in = conn.getInputStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        final HttpURLConnection http = (HttpURLConnection) conn;
+        try {
+            if (StringUtils.isNotBlank(validators.getProperty(ETAG))) {
+                http.setRequestProperty("If-None-Match", validators.getProperty(ETAG));
+            }
+            if (StringUtils.isNotBlank(validators.getProperty(LAST_MODIFIED))) {
+                http.setRequestProperty("If-Modified-Since", validators.getProperty(LAST_MODIFIED));
+            }
+            if (http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED && Files.isRegularFile(cachedMetadata)) {
+                return Files.readString(cachedMetadata, StandardCharsets.UTF_8);
+            }
+            final String xml;
+            try (InputStream in = http.getInputStream()) {
+                xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            saveToCache(cachedDir, xml, http.getHeaderField("ETag"), http.getHeaderField("Last-Modified"));
+            return xml;
+        } finally {
+            http.disconnect();
+        }
+    }
+
+    private static void saveToCache(Path dir, String xml, String etag, String lastModified) {
+        if (StringUtils.isAllBlank(etag, lastModified)) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            final Path temp = Files.createTempFile(dir, METADATA_FILE, ".tmp");
+            Files.writeString(temp, xml, StandardCharsets.UTF_8);
+            Files.move(temp, dir.resolve(METADATA_FILE), StandardCopyOption.REPLACE_EXISTING);
+            final Properties validators = new Properties();
+            if (StringUtils.isNotBlank(etag)) {
+                validators.setProperty(ETAG, etag);
+            }
+            if (StringUtils.isNotBlank(lastModified)) {
+                validators.setProperty(LAST_MODIFIED, lastModified);
+            }
+            try (OutputStream out = Files.newOutputStream(dir.resolve(VALIDATORS_FILE))) {
+                validators.store(out, null);
+            }
+        } catch (final IOException e) {
+            // cache is best effort
+        }
+    }
+
+    private static List<String> parseVersions(String xml) throws DocumentException {
+        final Document doc = DocumentHelper.parseText(xml);
+        final List<String> res = new ArrayList<>();
+        for (final Node node : doc.selectNodes("//metadata/versioning/versions/version")) {
+            final String version = node.getText();
+            if (StringUtils.isNotEmpty(version)) {
+                res.add(version);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * versions of an artifact in metadata order, pre-indexed by {@code major.minor}.
+     */
+    public static class ArtifactVersions {
+        private final List<String> versions;
+        private final Map<String, String> latestByMajorMinor = new HashMap<>();
+        private final long resolvedAt = System.currentTimeMillis();
+
+        ArtifactVersions(List<String> versions) {
+            this.versions = Collections.unmodifiableList(versions);
+            for (final String version : versions) {
+                // later versions in metadata override earlier ones
+                latestByMajorMinor.put(toMajorMinor(new DefaultArtifactVersion(version)), version);
+            }
+        }
+
+        public List<String> getVersions() {
+            return versions;
+        }
+
+        public String getLatestVersion() {
+            return versions.isEmpty() ? null : versions.get(versions.size() - 1);
+        }
+
+        /**
+         * @return the latest version with the same major and minor version as {@code version}, or null if there isn't any.
+         */
+        public String getLatestVersionOf(DefaultArtifactVersion version) {
+            return latestByMajorMinor.get(toMajorMinor(version));
+        }
+
+        private static String toMajorMinor(DefaultArtifactVersion version) {
+            return version.getMajorVersion() + "." + version.getMinorVersion();
+        }
+    }
+}
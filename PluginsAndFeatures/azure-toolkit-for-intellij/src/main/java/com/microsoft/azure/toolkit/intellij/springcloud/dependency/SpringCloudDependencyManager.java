@@ -8,8 +8,6 @@ package com.microsoft.azure.toolkit.intellij.springcloud.dependency;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.intellij.springcloud.dependency.DependencyArtifact;
 import com.microsoft.azure.toolkit.intellij.springcloud.dependency.PomXmlUpdater;
-import org.apache.commons.collections4.IterableUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.dom4j.Document;
@@ -19,12 +17,8 @@ import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
 import org.dom4j.Node;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.*;
 
 public class SpringCloudDependencyManager {
@@ -71,17 +65,22 @@ public class SpringCloudDependencyManager {
             throws AzureExecutionException, IOException, DocumentException {
         List<DependencyArtifact> res = new ArrayList<>();
         DefaultArtifactVersion springBootVersion = new DefaultArtifactVersion(springBootVersionStr);
+        List<DependencyArtifact> toResolve = new ArrayList<>();
         for (DependencyArtifact dependency : dependencies) {
-            if (StringUtils.isNotEmpty(dependency.getCurrentVersion()) && isCompatibleVersion(dependency.getCurrentVersion(), springBootVersionStr)) {
-                continue;
+            if (StringUtils.isEmpty(dependency.getCurrentVersion()) || !isCompatibleVersion(dependency.getCurrentVersion(), springBootVersionStr)) {
+                toResolve.add(dependency);
             }
-            List<String> latestVersions = getMavenCentralVersions(dependency.getGroupId(), dependency.getArtifactId());
-            String targetVersionText = getCompatibleVersionWithBootVersion(latestVersions, springBootVersion);
+        }
+        // fetch metadata of all the dependencies in parallel
+        Map<String, MavenMetadataResolver.ArtifactVersions> versionsMap = MavenMetadataResolver.getInstance().getVersions(toResolve);
+        for (DependencyArtifact dependency : toResolve) {
+            MavenMetadataResolver.ArtifactVersions latestVersions = versionsMap.get(dependency.getKey());
+            String targetVersionText = latestVersions.getLatestVersionOf(springBootVersion);
             if (StringUtils.isEmpty(targetVersionText)) {
-                if (isGreaterOrEqualVersion(springBootVersionStr, LATEST_SPRING_BOOT_RELEASE) && !latestVersions.isEmpty()) {
+                if (isGreaterOrEqualVersion(springBootVersionStr, LATEST_SPRING_BOOT_RELEASE) && !latestVersions.getVersions().isEmpty()) {
                     // to handle the ege case: spring-cloud-starter-config 2.2.5.RELEASE supports spring boot 2.3.0
                     // here for newest spring boot versions, use the latest versions
-                    targetVersionText = latestVersions.get(latestVersions.size() - 1);
+                    targetVersionText = latestVersions.getLatestVersion();
                 } else {
                     throw new AzureExecutionException(String.format("Cannot get compatible version for %s:%s with Spring Boot with version %s",
                                                                     dependency.getGroupId(), dependency.getArtifactId(), springBootVersionStr));
@@ -112,10 +111,6 @@ public class SpringCloudDependencyManager {
                 && springBootVersion.getMinorVersion() == version.getMinorVersion();
     }
 
-    private static String getCompatibleVersionWithBootVersion(List<String> latestVersions, DefaultArtifactVersion springBootVersion) {
-        return IterableUtils.find(IterableUtils.reversedIterable(latestVersions), version -> isCompatibleVersion(version, springBootVersion));
-    }
-
     private static void collectDependencyVersionsFromNodes(List<Node> nodes, Map<String, DependencyArtifact> versionMap) {
         for (Node node : nodes) {
             String groupId = ((Element) node).elementTextTrim("groupId");
@@ -125,25 +120,4 @@ public class SpringCloudDependencyManager {
         }
     }
 
-    private static List<String> getMavenCentralVersions(String groupId, String artifactId) throws IOException, DocumentException, AzureExecutionException {
-        URLConnection conn = new URL(String.format("https://repo1.maven.org/maven2/%s/%s/maven-metadata.xml",
-                StringUtils.replace(groupId, ".", "/"), artifactId)).openConnection();
-        List<String> res = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-            String xml = IOUtils.toString(reader);
-            Document doc = DocumentHelper.parseText(xml);
-            List<Node> nodes = doc.selectNodes("//metadata/versioning/versions/version");
-            for (Node node : nodes) {
-                String version = node.getText();
-                if (StringUtils.isNotEmpty(version)) {
-                    res.add(version);
-                }
-            }
-        }
-        if (res.isEmpty()) {
-            throw new AzureExecutionException((String.format("Cannot get version from maven central for: %s:%s.", groupId, artifactId)));
-        }
-        return res;
-    }
-
 }
@@ -20,6 +20,7 @@ import com.microsoft.azure.hdinsight.common.HDInsightHelperImpl;
 import com.microsoft.azure.hdinsight.common.HDInsightLoader;
 import com.microsoft.azure.toolkit.ide.common.store.AzureStoreManager;
 import com.microsoft.azure.toolkit.ide.common.store.DefaultMachineStore;
+import com.microsoft.azure.toolkit.ide.common.store.IMachineStore;
 import com.microsoft.azure.toolkit.intellij.common.CommonConst;
 import com.microsoft.azure.toolkit.intellij.common.action.IntellijAzureActionManager;
 import com.microsoft.azure.toolkit.intellij.common.auth.IntelliJSecureStore;
@@ -186,6 +187,14 @@ public class AzureActionsListener implements AppLifecycleListener, PluginCompone
         }
     }
 
+    @Override
+    public void appWillBeClosed(boolean isRestart) {
+        final IMachineStore machineStore = AzureStoreManager.getInstance().getMachineStore();
+        if (machineStore != null) {
+            machineStore.flush();
+        }
+    }
+
     @Override
     public PluginSettings getSettings() {
         return settings;
@@ -244,7 +244,11 @@ public class ServerExplorerToolWindowFactory implements ToolWindowFactory, Prope
 
     private SortableTreeNode createTreeNode(Node node, Project project) {
         final SortableTreeNode treeNode = new SortableTreeNode(node, true);
+        bindTreeNode(treeNode, node, project);
+        return treeNode;
+    }
 
+    private void bindTreeNode(SortableTreeNode treeNode, Node node, Project project) {
         // associate the DefaultMutableTreeNode with the Node via it's "viewData"
         // property; this allows us to quickly retrieve the DefaultMutableTreeNode
         // object associated with a Node
@@ -263,8 +267,6 @@ public class ServerExplorerToolWindowFactory implements ToolWindowFactory, Prope
             .sorted(Comparator.comparing(Node::getPriority).thenComparing(Node::getName))
             .map(childNode -> createTreeNode(childNode, project))
             .forEach(treeNode::add);
-
-        return treeNode;
     }
 
     private void removeEventHandlers(Node node) {
@@ -324,6 +326,7 @@ public class ServerExplorerToolWindowFactory implements ToolWindowFactory, Prope
                 return;
             }
 
+            final DefaultTreeModel model = treeModelMap.get(project);
             switch (e.getAction()) {
                 case add:
                     // create child tree nodes for the new nodes
@@ -346,16 +349,43 @@ public class ServerExplorerToolWindowFactory implements ToolWindowFactory, Prope
                         treeNode.remove((MutableTreeNode) childNode.getViewData());
                     }
                     break;
+                case replace:
+                    // apply the diff with a few model events instead of reloading, so that the
+                    // expansion state of the unchanged children is kept
+                    replaceChildren((Collection<Node>) e.getOldItems(), (Collection<Node>) e.getNewItems(), model);
+                    return;
                 default:
                     break;
             }
-            final DefaultTreeModel model = treeModelMap.get(project);
             if (model != null) {
                 synchronized (model) {
                     model.reload(treeNode);
                 }
             }
         }
+
+        private void replaceChildren(Collection<Node> removed, Collection<Node> added, @Nullable DefaultTreeModel model) {
+            final Collection<Node> removedNodes = removed.stream().filter(n -> !isOutdatedModule(n)).collect(Collectors.toList());
+            final Collection<Node> addedNodes = added.stream().filter(n -> !isOutdatedModule(n)).collect(Collectors.toList());
+            TreeChildrenDiff.apply(treeNode, removedNodes, addedNodes, model, new TreeChildrenDiff.Binder() {
+                @Override
+                public @NotNull SortableTreeNode bind(@NotNull Node node) {
+                    return createTreeNode(node, project);
+                }
+
+                @Override
+                public void rebind(@NotNull SortableTreeNode childTreeNode, @NotNull Node node) {
+                    childTreeNode.removeAllChildren();
+                    childTreeNode.setUserObject(node);
+                    bindTreeNode(childTreeNode, node, project);
+                }
+
+                @Override
+                public void unbind(@NotNull Node node) {
+                    removeEventHandlers(node);
+                }
+            });
+        }
     }
 
     private static class NodeTreeCellRenderer extends NodeRenderer {
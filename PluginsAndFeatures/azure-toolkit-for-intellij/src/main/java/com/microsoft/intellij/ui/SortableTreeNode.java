@@ -36,6 +36,12 @@ public class SortableTreeNode extends DefaultMutableTreeNode implements Sortable
         super.insert(newChild, childIndex);
     }
 
+    @Override
+    public void setUserObject(Object userObject) {
+        super.setUserObject(userObject);
+        this.node = userObject instanceof Node ? (Node) userObject : null;
+    }
+
     @Override
     public int getPriority() {
         return node == null ? DEFAULT_PRIORITY : node.getPriority();
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.intellij.ui;
+
+import com.microsoft.tooling.msservices.serviceexplorer.Node;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.tree.DefaultTreeModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * applies a batched change of the child nodes of a {@link Node} (see {@code ObservableList#endBatch()}) to its tree node.
+ * a removed child and an added child with the same class and id are paired up, and the tree node of the removed one is
+ * updated in place to show the added one, so its position and selection survive a refresh. the tree model is notified
+ * once per batch for the removed, the inserted and the updated children, instead of once per child.
+ */
+final class TreeChildrenDiff {
+    interface Binder {
+        /**
+         * create the tree node (and the tree nodes of its children) of {@code node} and start listening to its changes.
+         */
+        @NotNull
+        SortableTreeNode bind(@NotNull Node node);
+
+        /**
+         * make {@code treeNode} show {@code node}, which replaces the node it currently shows, and rebuild its children.
+         */
+        void rebind(@NotNull SortableTreeNode treeNode, @NotNull Node node);
+
+        /**
+         * stop listening to the changes of {@code node}, which is removed from the tree.
+         */
+        void unbind(@NotNull Node node);
+    }
+
+    private TreeChildrenDiff() {
+    }
+
+    static void apply(@NotNull SortableTreeNode parent, @NotNull Collection<Node> removed, @NotNull Collection<Node> added,
+                      @Nullable DefaultTreeModel model, @NotNull Binder binder) {
+        final Map<String, Node> removedByKey = uniqueByKey(removed);
+        final Map<String, Node> addedByKey = uniqueByKey(added);
+
+        final TreeMap<Integer, SortableTreeNode> removedTreeNodes = new TreeMap<>();
+        final List<SortableTreeNode> updatedTreeNodes = new ArrayList<>();
+        final List<SortableTreeNode> restructuredTreeNodes = new ArrayList<>();
+        final Set<Node> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Node node : removed) {
+            if (Objects.isNull(node)) {
+                continue;
+            }
+            final SortableTreeNode treeNode = node.getViewData() instanceof SortableTreeNode ? (SortableTreeNode) node.getViewData() : null;
+            final int index = Objects.isNull(treeNode) ? -1 : parent.getIndex(treeNode);
+            final Node replacement = addedByKey.get(key(node));
+            if (index >= 0 && Objects.nonNull(replacement) && removedByKey.get(key(node)) == node) {
+                final boolean hadChildren = treeNode.getChildCount() > 0;
+                binder.unbind(node);
+                binder.rebind(treeNode, replacement);
+                reused.add(replacement);
+                (hadChildren || treeNode.getChildCount() > 0 ? restructuredTreeNodes : updatedTreeNodes).add(treeNode);
+                continue;
+            }
+            binder.unbind(node);
+            if (index >= 0) {
+                removedTreeNodes.put(index, treeNode);
+            }
+        }
+        // remove from the end so that the indices of the remaining ones stay valid
+        removedTreeNodes.descendingKeySet().forEach(parent::remove);
+
+        final List<SortableTreeNode> insertedTreeNodes = new ArrayList<>();
+        for (final Node node : added) {
+            if (Objects.nonNull(node) && !reused.contains(node)) {
+                final SortableTreeNode treeNode = binder.bind(node);
+                parent.add(treeNode);
+                insertedTreeNodes.add(treeNode);
+            }
+        }
+
+        if (Objects.isNull(model)) {
+            return;
+        }
+        synchronized (model) {
+            if (!removedTreeNodes.isEmpty()) {
+                model.nodesWereRemoved(parent, removedTreeNodes.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                    removedTreeNodes.values().toArray());
+            }
+            if (!insertedTreeNodes.isEmpty()) {
+                model.nodesWereInserted(parent, indices(parent, insertedTreeNodes));
+            }
+            if (!updatedTreeNodes.isEmpty()) {
+                model.nodesChanged(parent, indices(parent, updatedTreeNodes));
+            }
+            // only the children which have (or had) their own subtree
+            restructuredTreeNodes.forEach(model::nodeStructureChanged);
+        }
+    }
+
+    /**
+     * @return nodes by class and id, except those sharing both with another node (e.g. all cluster nodes of a module),
+     * which can't be paired up reliably.
+     */
+    @NotNull
+    private static Map<String, Node> uniqueByKey(@NotNull Collection<Node> nodes) {
+        final Map<String, Node> result = new HashMap<>();
+        final Set<String> ambiguous = new HashSet<>();
+        for (final Node node : nodes) {
+            if (Objects.nonNull(node) && Objects.nonNull(node.getId()) && result.put(key(node), node) != null) {
+                ambiguous.add(key(node));
+            }
+        }
+        ambiguous.forEach(result::remove);
+        return result;
+    }
+
+    @NotNull
+    private static String key(@NotNull Node node) {
+        return node.getClass().getName() + "/" + node.getId();
+    }
+
+    @NotNull
+    private static int[] indices(@NotNull SortableTreeNode parent, @NotNull List<SortableTreeNode> children) {
+        return children.stream().mapToInt(parent::getIndex).sorted().toArray();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.springcloud.dependency;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MavenMetadataResolverTest {
+    private static final String METADATA_PATH = "/com/example/demo/maven-metadata.xml";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private HttpServer server;
+    private final List<String> ifNoneMatchHeaders = Collections.synchronizedList(new ArrayList<>());
+    private volatile String etag = "\"v1\"";
+    private volatile String metadata = metadata("1.0.0", "1.0.1", "1.1.0");
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(METADATA_PATH, exchange -> {
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                final byte[] body = metadata.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testResolveFromFileRepository() throws Exception {
+        final Path repository = temp.newFolder("repository").toPath();
+        final Path file = repository.resolve(METADATA_PATH.substring(1));
+        Files.createDirectories(file.getParent());
+        Files.write(file, metadata("1.0.0", "1.0.1", "1.1.0", "2.0.0-M1", "2.0.0").getBytes(StandardCharsets.UTF_8));
+        final Path cacheDir = temp.newFolder("cache").toPath();
+
+        final MavenMetadataResolver.ArtifactVersions versions =
+                new MavenMetadataResolver(repository.toUri().toString(), cacheDir).getVersions("com.example", "demo");
+
+        assertEquals(Arrays.asList("1.0.0", "1.0.1", "1.1.0", "2.0.0-M1", "2.0.0"), versions.getVersions());
+        assertEquals("2.0.0", versions.getLatestVersion());
+        assertEquals("1.0.1", versions.getLatestVersionOf(new DefaultArtifactVersion("1.0.0")));
+        assertEquals("1.1.0", versions.getLatestVersionOf(new DefaultArtifactVersion("1.1.5")));
+        assertEquals("2.0.0", versions.getLatestVersionOf(new DefaultArtifactVersion("2.0.0-M1")));
+        assertNull(versions.getLatestVersionOf(new DefaultArtifactVersion("3.0.0")));
+        // a local repository is read directly, there is nothing to cache
+        try (Stream<Path> cached = Files.list(cacheDir)) {
+            assertFalse(cached.findAny().isPresent());
+        }
+    }
+
+    @Test
+    public void testVersionsAreReusedInMemory() throws Exception {
+        final MavenMetadataResolver resolver = new MavenMetadataResolver(serverUrl(), temp.newFolder("cache").toPath());
+
+        resolver.getVersions("com.example", "demo");
+        resolver.getVersions("com.example", "demo");
+
+        assertEquals(1, ifNoneMatchHeaders.size());
+    }
+
+    @Test
+    public void testDiskCacheIsRevalidatedWithETag() throws Exception {
+        final Path cacheDir = temp.newFolder("cache").toPath();
+        final List<String> first = new MavenMetadataResolver(serverUrl(), cacheDir).getVersions("com.example", "demo").getVersions();
+        assertTrue(Files.isRegularFile(cacheDir.resolve(METADATA_PATH.substring(1))));
+
+        // a new resolver has nothing in memory, the cached metadata is reused once the server confirms it's unchanged
+        metadata = "not a metadata, the server must not send it again";
+        final List<String> second = new MavenMetadataResolver(serverUrl(), cacheDir).getVersions("com.example", "demo").getVersions();
+
+        assertEquals(Arrays.asList("null", "\"v1\""), ifNoneMatchHeaders);
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testChangedMetadataReplacesDiskCache() throws Exception {
+        final Path cacheDir = temp.newFolder("cache").toPath();
+        new MavenMetadataResolver(serverUrl(), cacheDir).getVersions("com.example", "demo");
+
+        etag = "\"v2\"";
+        metadata = metadata("1.0.0", "1.0.1", "1.1.0", "1.1.1");
+        final MavenMetadataResolver.ArtifactVersions changed =
+                new MavenMetadataResolver(serverUrl(), cacheDir).getVersions("com.example", "demo");
+        assertEquals("1.1.1", changed.getLatestVersion());
+
+        // the new metadata and ETag are cached
+        final MavenMetadataResolver.ArtifactVersions cached =
+                new MavenMetadataResolver(serverUrl(), cacheDir).getVersions("com.example", "demo");
+        assertEquals(Arrays.asList("null", "\"v1\"", "\"v2\""), ifNoneMatchHeaders);
+        assertEquals(changed.getVersions(), cached.getVersions());
+    }
+
+    private String serverUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private static String metadata(String... versions) {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n")
+                .append("  <groupId>com.example</groupId>\n  <artifactId>demo</artifactId>\n  <versioning>\n    <versions>\n");
+        for (final String version : versions) {
+            xml.append("      <version>").append(version).append("</version>\n");
+        }
+        return xml.append("    </versions>\n  </versioning>\n</metadata>\n").toString();
+    }
+}
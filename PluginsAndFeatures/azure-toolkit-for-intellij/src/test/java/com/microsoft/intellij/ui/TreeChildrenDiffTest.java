@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.intellij.ui;
+
+import com.microsoft.tooling.msservices.serviceexplorer.Node;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TreeChildrenDiffTest {
+    private final List<String> events = new ArrayList<>();
+    private final List<Node> unbound = new ArrayList<>();
+    private SortableTreeNode root;
+    private DefaultTreeModel model;
+
+    private final TreeChildrenDiff.Binder binder = new TreeChildrenDiff.Binder() {
+        @Override
+        public @NotNull SortableTreeNode bind(@NotNull Node node) {
+            final SortableTreeNode treeNode = new SortableTreeNode(node, true);
+            node.setViewData(treeNode);
+            return treeNode;
+        }
+
+        @Override
+        public void rebind(@NotNull SortableTreeNode treeNode, @NotNull Node node) {
+            treeNode.removeAllChildren();
+            treeNode.setUserObject(node);
+            node.setViewData(treeNode);
+        }
+
+        @Override
+        public void unbind(@NotNull Node node) {
+            unbound.add(node);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        root = new SortableTreeNode(new Node("root", "root", null, true), true);
+        model = new DefaultTreeModel(root);
+        model.addTreeModelListener(new TreeModelListener() {
+            @Override
+            public void treeNodesChanged(TreeModelEvent e) {
+                events.add("changed" + Arrays.toString(e.getChildIndices()));
+            }
+
+            @Override
+            public void treeNodesInserted(TreeModelEvent e) {
+                events.add("inserted" + Arrays.toString(e.getChildIndices()));
+            }
+
+            @Override
+            public void treeNodesRemoved(TreeModelEvent e) {
+                events.add("removed" + Arrays.toString(e.getChildIndices()));
+            }
+
+            @Override
+            public void treeStructureChanged(TreeModelEvent e) {
+                events.add("structure");
+            }
+        });
+    }
+
+    @Test
+    public void testRefreshWithSameChildrenUpdatesTreeNodesInPlace() {
+        final List<Node> previous = nodes("vm", 20);
+        TreeChildrenDiff.apply(root, List.of(), previous, null, binder);
+        final List<TreeNode> treeNodes = children();
+
+        final List<Node> rebuilt = nodes("vm", 20);
+        TreeChildrenDiff.apply(root, previous, rebuilt, model, binder);
+
+        // replacing child by child used to fire a removal and an insertion per child, 40 events here
+        assertEquals(List.of("changed" + Arrays.toString(range(0, 20))), events);
+        assertEquals(treeNodes, children());
+        for (int i = 0; i < 20; i++) {
+            assertSame(rebuilt.get(i), ((SortableTreeNode) root.getChildAt(i)).getUserObject());
+            assertSame(root.getChildAt(i), rebuilt.get(i).getViewData());
+        }
+        assertEquals(previous, unbound);
+    }
+
+    @Test
+    public void testAddedAndRemovedChildrenAreNotifiedOncePerBatch() {
+        final List<Node> previous = nodes("vm", 5);
+        TreeChildrenDiff.apply(root, List.of(), previous, null, binder);
+        final TreeNode kept = root.getChildAt(1);
+
+        // vm-0, vm-2 and vm-4 are deleted, vm-5 and vm-6 are created
+        final List<Node> rebuilt = new ArrayList<>(List.of(new Node("vm-1", "vm-1", null, true), new Node("vm-3", "vm-3", null, true)));
+        rebuilt.addAll(nodes("vm", 7).subList(5, 7));
+        TreeChildrenDiff.apply(root, previous, rebuilt, model, binder);
+
+        assertEquals(List.of("removed[0, 2, 4]", "inserted[2, 3]", "changed[0, 1]"), events);
+        assertSame(kept, root.getChildAt(0));
+        assertEquals(4, root.getChildCount());
+        assertEquals(previous, unbound);
+    }
+
+    @Test
+    public void testChildWithSubtreeIsRestructured() {
+        final List<Node> previous = nodes("account", 2);
+        TreeChildrenDiff.apply(root, List.of(), previous, null, binder);
+        ((SortableTreeNode) root.getChildAt(0)).add(new SortableTreeNode(new Node("container", "container", null, true), true));
+
+        TreeChildrenDiff.apply(root, previous, nodes("account", 2), model, binder);
+
+        assertEquals(List.of("changed[1]", "structure"), events);
+        assertEquals(0, root.getChildAt(0).getChildCount());
+    }
+
+    @Test
+    public void testChildrenSharingIdAreReplaced() {
+        final List<Node> previous = List.of(new Node("cluster", "a", null, true), new Node("cluster", "b", null, true));
+        TreeChildrenDiff.apply(root, List.of(), previous, null, binder);
+        final List<TreeNode> treeNodes = children();
+
+        TreeChildrenDiff.apply(root, previous, List.of(new Node("cluster", "a", null, true), new Node("cluster", "b", null, true)), model, binder);
+
+        assertEquals(List.of("removed[0, 1]", "inserted[0, 1]"), events);
+        assertNotSame(treeNodes.get(0), root.getChildAt(0));
+        assertNotSame(treeNodes.get(1), root.getChildAt(1));
+    }
+
+    @Test
+    public void testRefreshWithoutModelOnlyUpdatesTree() {
+        final List<Node> previous = nodes("vm", 3);
+        TreeChildrenDiff.apply(root, List.of(), previous, null, binder);
+
+        TreeChildrenDiff.apply(root, previous.subList(0, 1), List.of(), null, binder);
+
+        assertTrue(events.isEmpty());
+        assertEquals(2, root.getChildCount());
+    }
+
+    private List<TreeNode> children() {
+        final List<TreeNode> children = new ArrayList<>();
+        for (int i = 0; i < root.getChildCount(); i++) {
+            children.add(root.getChildAt(i));
+        }
+        return children;
+    }
+
+    private static List<Node> nodes(String prefix, int count) {
+        final List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new Node(prefix + "-" + i, prefix + "-" + i, null, true));
+        }
+        return nodes;
+    }
+
+    private static int[] range(int from, int to) {
+        final int[] range = new int[to - from];
+        for (int i = from; i < to; i++) {
+            range[i - from] = i;
+        }
+        return range;
+    }
+}
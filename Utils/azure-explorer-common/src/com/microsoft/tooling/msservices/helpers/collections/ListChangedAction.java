@@ -7,5 +7,9 @@ package com.microsoft.tooling.msservices.helpers.collections;
 
 public enum ListChangedAction {
     add,
-    remove
+    remove,
+    /**
+     * items in {@code oldItems} are removed and items in {@code newItems} are added, as a single change.
+     */
+    replace
 }
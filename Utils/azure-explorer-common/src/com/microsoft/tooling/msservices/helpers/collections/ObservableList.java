@@ -10,12 +10,16 @@ import com.google.common.collect.ForwardingList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 public class ObservableList<E> extends ForwardingList<E> {
     private final List<E> delegate = new ArrayList<E>();
     protected List<ListChangeListener> changeListeners = new ArrayList<ListChangeListener>();
     private boolean freezeEvents = false;
+    private List<E> batchSnapshot = null;
 
     @Override
     protected List<E> delegate() {
@@ -95,10 +99,51 @@ public class ObservableList<E> extends ForwardingList<E> {
         return removed;
     }
 
+    /**
+     * Start collecting changes silently till {@link #endBatch()}, which notifies the listeners once with the net change.
+     */
+    public void beginBatch() {
+        if (batchSnapshot == null) {
+            batchSnapshot = new ArrayList<E>(delegate);
+        }
+    }
+
+    /**
+     * Notify the listeners with a single {@link ListChangedAction#replace} event containing the elements removed and
+     * added (compared by identity) since {@link #beginBatch()}, no event is fired if nothing changed.
+     */
+    public void endBatch() {
+        if (batchSnapshot == null) {
+            return;
+        }
+        final List<E> before = batchSnapshot;
+        batchSnapshot = null;
+        final Set<E> beforeSet = Collections.newSetFromMap(new IdentityHashMap<E, Boolean>());
+        beforeSet.addAll(before);
+        final Set<E> afterSet = Collections.newSetFromMap(new IdentityHashMap<E, Boolean>());
+        afterSet.addAll(delegate);
+
+        final List<E> removed = new ArrayList<E>();
+        for (E element : before) {
+            if (!afterSet.contains(element)) {
+                removed.add(element);
+            }
+        }
+        final List<E> added = new ArrayList<E>();
+        for (E element : delegate) {
+            if (!beforeSet.contains(element)) {
+                added.add(element);
+            }
+        }
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            fireChangeListenerEvent(ListChangedAction.replace, added, removed);
+        }
+    }
+
     private void fireChangeListenerEvent(ListChangedAction action,
                                          Collection<?> newItems,
                                          Collection<?> oldItems) {
-        if (!changeListeners.isEmpty() && !freezeEvents) {
+        if (!changeListeners.isEmpty() && !freezeEvents && batchSnapshot == null) {
             ListChangedEvent listChangedEvent = new ListChangedEvent(
                     this,
                     action,
@@ -22,8 +22,11 @@ import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.microsoft.tooling.msservices.serviceexplorer.azure.AzureModule;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 public abstract class RefreshableNode extends Node {
     protected boolean initialized;
@@ -83,11 +86,16 @@ public abstract class RefreshableNode extends Node {
     // to refresh items asynchronously. The default implementation simply
     // delegates to "refreshItems" *synchronously* and completes the Future
     // with the result of calling getChildNodes.
+    //
+    // Children are rebuilt into a batch of the child list, so listeners get a single change event with the previous and
+    // the rebuilt children. A view may pair them up by id to update its existing entries in place.
     protected synchronized void refreshItems(SettableFuture<List<Node>> future, boolean forceRefresh) {
         if (!loading) {
             setLoading(true);
+            final List<Node> previous = new ArrayList<>(childNodes);
+            childNodes.beginBatch();
             try {
-                removeAllChildNodes();
+                childNodes.clear();
                 if (IdeAzureAccount.getInstance().isLoggedIn()
                         || this instanceof AzureModule
                         || refreshEnabledWhenNotSignIn()) {
@@ -96,9 +104,13 @@ public abstract class RefreshableNode extends Node {
                     }
                     refreshItems();
                 }
+                childNodes.endBatch();
+                cleanUpReplacedChildren(previous);
 
                 future.set(getChildNodes());
             } catch (Exception e) {
+                childNodes.endBatch();
+                cleanUpReplacedChildren(previous);
                 future.setException(e);
             } finally {
                 setLoading(false);
@@ -106,6 +118,17 @@ public abstract class RefreshableNode extends Node {
         }
     }
 
+    // let the replaced children clean up after their own child nodes, as removeAllChildNodes does
+    private void cleanUpReplacedChildren(List<Node> previous) {
+        final Set<Node> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(childNodes);
+        for (final Node node : previous) {
+            if (node != null && !kept.contains(node)) {
+                node.removeAllChildNodes();
+            }
+        }
+    }
+
     protected void refreshFromAzure() throws Exception {
     }
 
@@ -5,33 +5,90 @@
 
 package com.microsoft.azure.toolkit.ide.common.experiment;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.microsoft.azure.toolkit.ide.common.store.AzureStoreManager;
+import com.microsoft.azure.toolkit.ide.common.store.IMachineStore;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * stale-while-revalidate store of experiment flags: reads never block, they are served from the last assignment persisted
+ * in the machine store, while the assignment is refreshed in background once it's older than {@link #REFRESH_INTERVAL_MS}.
+ * a failed refresh is retried no earlier than an exponentially growing delay (capped at {@link #MAX_RETRY_DELAY_MS}).
+ * {@link #getAssignmentContext()} is on the telemetry path and only reads the last assignment, it never triggers a refresh.
+ */
+@Slf4j
 public class ExperimentationClient {
     private static final String ASSIGNMENT_UNIT_ID = "clientId";
     private static final String AUDIENCE_FILTER_ID = "userstype";
     private static final String AUDIENCE_FILTER_VALUE = "intellij";
     private static final String END_POINT = "https://aka.ms/azure-ij-ab-exp";
-    private static ExperimentationService experimentationService;
+    private static final String SERVICE = "experiment";
+    private static final String FEATURES = "features";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final long REFRESH_INTERVAL_MS = TimeUnit.HOURS.toMillis(12);
+    private static final long MIN_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private static volatile ExperimentationService experimentationService;
+    private static volatile long nextRefreshAt = 0;
+    private static final AtomicInteger failures = new AtomicInteger(0);
 
+    /**
+     * @return the experimentation service serving the last known assignment, never blocks on network.
+     */
     @Nullable
     public static ExperimentationService getExperimentationService() {
         if (Objects.isNull(experimentationService)) {
             init();
         }
+        refreshIfNeeded();
         return experimentationService;
     }
 
-    @AzureOperation(name = "internal/exp.assignment")
-    private static void init() {
+    @Nullable
+    public static String getFeatureVariable(@Nonnull String featureFlagName) {
+        return Optional.ofNullable(getExperimentationService()).map(s -> s.getFeatureVariable(featureFlagName)).orElse(null);
+    }
+
+    public static boolean isFeatureEnabled(@Nonnull FeatureFlag flag) {
+        return Boolean.parseBoolean(getFeatureVariable(flag.getFlagName()));
+    }
+
+    /**
+     * @return assignment context of the last known assignment, without checking whether it should be refreshed.
+     */
+    @Nullable
+    public static String getAssignmentContext() {
+        if (Objects.isNull(experimentationService)) {
+            init();
+        }
+        return Optional.ofNullable(experimentationService).map(ExperimentationService::getAssignmentContext).orElse(null);
+    }
+
+    private static synchronized void init() {
+        if (Objects.nonNull(experimentationService)) {
+            return;
+        }
         try {
             final Map<String, String> audienceFilters = new HashMap<>();
             final Map<String, String> assignmentIds = new HashMap<>();
@@ -41,9 +98,73 @@ public class ExperimentationClient {
                     .withEndPoint(END_POINT)
                     .withAudienceFilters(audienceFilters)
                     .withAssignmentIds(assignmentIds)
+                    .withFeatures(loadFeatures())
                     .create();
-        } catch (final Exception ignored) {
+            final long updatedAt = Optional.ofNullable(getStore()).map(s -> NumberUtils.toLong(s.getProperty(SERVICE, UPDATED_AT), 0)).orElse(0L);
+            nextRefreshAt = updatedAt + REFRESH_INTERVAL_MS;
+        } catch (final Exception e) {
+            log.debug("failed to initialize experimentation service", e);
+        }
+    }
+
+    private static void refreshIfNeeded() {
+        final ExperimentationService service = experimentationService;
+        final AzureTaskManager manager = AzureTaskManager.getInstance();
+        // the task manager is registered by the ide plugin, nothing can be refreshed before that
+        if (Objects.isNull(service) || Objects.isNull(manager) || System.currentTimeMillis() < nextRefreshAt || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        manager.runOnPooledThread(() -> {
+            try {
+                refresh(service);
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    @AzureOperation(name = "internal/exp.assignment")
+    private static void refresh(@Nonnull ExperimentationService service) {
+        try {
+            service.updateFeatures();
+            failures.set(0);
+            nextRefreshAt = System.currentTimeMillis() + REFRESH_INTERVAL_MS;
+            saveFeatures(service.getFeatures());
+        } catch (final Exception e) {
+            // negative cache: don't hit the endpoint again on every read, back off instead
+            final long delay = Math.min(MAX_RETRY_DELAY_MS, MIN_RETRY_DELAY_MS << Math.min(failures.getAndIncrement(), 6));
+            nextRefreshAt = System.currentTimeMillis() + delay;
+            log.debug("failed to refresh experiment assignment, retry in {}ms", delay, e);
+        }
+    }
+
+    @Nonnull
+    private static Map<String, String> loadFeatures() {
+        final String json = Optional.ofNullable(getStore()).map(s -> s.getProperty(SERVICE, FEATURES)).orElse(null);
+        if (StringUtils.isBlank(json)) {
+            return Collections.emptyMap();
         }
+        try {
+            final Map<String, String> features = JsonUtils.fromJson(json, new TypeReference<HashMap<String, String>>() {
+            });
+            return Optional.ofNullable(features).orElse(Collections.emptyMap());
+        } catch (final Exception e) {
+            log.debug("failed to load persisted experiment assignment", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static void saveFeatures(@Nonnull Map<String, String> features) {
+        final IMachineStore store = getStore();
+        if (Objects.nonNull(store)) {
+            store.setProperty(SERVICE, FEATURES, JsonUtils.toJson(features));
+            store.setProperty(SERVICE, UPDATED_AT, String.valueOf(System.currentTimeMillis()));
+        }
+    }
+
+    @Nullable
+    private static IMachineStore getStore() {
+        return AzureStoreManager.getInstance().getMachineStore();
     }
 
     public enum FeatureFlag {
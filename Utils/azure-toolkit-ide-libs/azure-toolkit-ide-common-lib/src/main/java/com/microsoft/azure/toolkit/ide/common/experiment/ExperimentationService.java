@@ -18,7 +18,9 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,10 +30,9 @@ import java.util.Objects;
 public class ExperimentationService {
     private static final String ASSIGNMENT_CONTEXT = "AssignmentContext";
     private final String NAME_SPACE = "IntelliJ";
-    private CloseableHttpClient client;
     private HttpRequestBase request;
     private String endPoint;
-    private final Map<String, String> featuresCache = new HashMap<>();
+    private volatile Map<String, String> featuresCache = Collections.emptyMap();
     private final Map<String, String> expParameters = new HashMap<>();
     private static final ObjectMapper JSON_MAPPER = new JsonMapper()
             .configure(JsonParser.Feature.ALLOW_COMMENTS, true)
@@ -52,34 +53,56 @@ public class ExperimentationService {
         return this;
     }
 
+    /**
+     * seed the features with previously fetched (e.g. persisted) ones, they are served until {@link #updateFeatures()} succeeds.
+     */
+    public ExperimentationService withFeatures(@Nonnull Map<String, String> features) {
+        this.featuresCache = Collections.unmodifiableMap(new HashMap<>(features));
+        return this;
+    }
+
+    /**
+     * prepare the assignment request, features are not fetched until {@link #updateFeatures()} is called.
+     */
     public ExperimentationService create() {
         final StringBuilder builder = new StringBuilder();
         expParameters.forEach((key, value) -> builder.append(String.format("%s=%s,", key, value)));
-        this.client = HttpClients.custom().setSSLContext(Azure.az().config().getSslContext()).build();
         this.request = new HttpGet(endPoint);
         this.request.addHeader("x-exp-sdk-version", "Microsoft.VariantAssignment.Client/1.0.0");
         this.request.addHeader("x-exp-parameters", builder.toString());
-        updateFeatures();
         return this;
     }
 
-    private void updateFeatures() {
-        try (final CloseableHttpResponse response = client.execute(request)) {
+    /**
+     * fetch the assignment synchronously, features are replaced as a whole only if the request succeeds.
+     */
+    public ExperimentationService updateFeatures() {
+        try (final CloseableHttpClient client = HttpClients.custom().setSSLContext(Azure.az().config().getSslContext()).build();
+             final CloseableHttpResponse response = client.execute(request)) {
             final HttpEntity entity = response.getEntity();
             if (Objects.nonNull(entity)) {
+                final Map<String, String> features = new HashMap<>();
                 final AssignmentResponse assignmentResponse = JSON_MAPPER.readValue(entity.getContent(), AssignmentResponse.class);
                 final List<AssignmentResponse.Config> configList = assignmentResponse.getConfigs();
                 configList.forEach(config -> {
                     if (Objects.equals(config.getId(), NAME_SPACE)) {
-                        featuresCache.putAll(config.getParameters());
+                        features.putAll(config.getParameters());
                     }
                 });
-                featuresCache.put(ASSIGNMENT_CONTEXT, assignmentResponse.getAssignmentContext());
+                if (Objects.nonNull(assignmentResponse.getAssignmentContext())) {
+                    features.put(ASSIGNMENT_CONTEXT, assignmentResponse.getAssignmentContext());
+                }
+                this.featuresCache = Collections.unmodifiableMap(features);
             }
-            client.close();
         } catch (final Exception e) {
             throw new AzureToolkitRuntimeException(e);
         }
+        return this;
+    }
+
+    @Nonnull
+    public Map<String, String> getFeatures() {
+        return featuresCache;
     }
 
     @Nullable
@@ -233,6 +233,8 @@ public class Favorites extends AbstractAzResourceModule<Favorite, AzResource.Non
             final IMachineStore store = AzureStoreManager.getInstance().getMachineStore();
             final List<String> idList = resources.stream().map(AbstractAzResource::getId).distinct().collect(Collectors.toList());
             store.setProperty(this.getName(), key, mapper.writeValueAsString(idList));
+            // favorites are changed by the user explicitly, don't lose them to the write-behind delay
+            store.flush();
         } catch (final JsonProcessingException e) {
             AzureMessager.getMessager().error("failed to persist favorites.");
         }
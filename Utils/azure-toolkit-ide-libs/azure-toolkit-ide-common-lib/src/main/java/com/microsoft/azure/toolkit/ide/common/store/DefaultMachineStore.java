@@ -6,28 +6,52 @@ package com.microsoft.azure.toolkit.ide.common.store;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.utils.Debouncer;
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import com.microsoft.azure.toolkit.lib.common.utils.TailingDebouncer;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * write-behind machine store: mutations are kept in memory and flushed to {@link #dataFile}
+ * after {@link #FLUSH_DELAY_MS} of quiet time (or at shutdown), so a burst of updates results in a single write.
+ * the trade-off is durability: there is no journal, changes made in the last {@link #FLUSH_DELAY_MS} are lost if the
+ * process crashes or is killed. callers persisting user data that must not be lost call {@link #flush()} right after
+ * updating it, and the IDE integrations flush when the IDE closes (the JVM shutdown hook is only the last resort).
+ */
+@Slf4j
 public class DefaultMachineStore implements IMachineStore {
+    private static final int FLUSH_DELAY_MS = 500;
 
-    private String dataFile;
-    private Map<String, String> map = new HashMap<>();
+    private final String dataFile;
+    private final Map<String, String> map = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicLong writeCount = new AtomicLong(0);
+    private final Debouncer saveLater = new TailingDebouncer(this::flush, FLUSH_DELAY_MS);
 
     public DefaultMachineStore(String dataFile) {
         this.dataFile = dataFile;
         if (Files.exists(Paths.get(dataFile))) {
             load();
         }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "azure-machine-store-flush"));
     }
 
     @Nullable
@@ -41,13 +65,12 @@ public class DefaultMachineStore implements IMachineStore {
     }
 
     public void setProperty(@javax.annotation.Nullable String service, @Nonnull String key, @Nullable String value) {
-        String hashKey = combineKey(service, key);
-        if (value == null) {
-            map.remove(hashKey);
-            return;
+        final String hashKey = combineKey(service, key);
+        final String old = value == null ? map.remove(hashKey) : map.put(hashKey, value);
+        if (!Objects.equals(old, value)) {
+            this.dirty.set(true);
+            this.saveLater.debounce();
         }
-        map.put(hashKey, value);
-        save();
     }
 
     private static String combineKey(String service, String key) {
@@ -59,7 +82,11 @@ public class DefaultMachineStore implements IMachineStore {
             if (Files.exists(Paths.get(dataFile))) {
                 final String json = FileUtils.readFileToString(new File(dataFile), "utf8");
                 final TypeReference<HashMap<String, String>> type = new TypeReference<HashMap<String, String>>(){};
-                map = JsonUtils.fromJson(json, type);
+                final Map<String, String> loaded = JsonUtils.fromJson(json, type);
+                map.clear();
+                if (loaded != null) {
+                    map.putAll(loaded);
+                }
             }
         } catch (final AzureToolkitRuntimeException e) {
             throw e;
@@ -68,13 +95,49 @@ public class DefaultMachineStore implements IMachineStore {
         }
     }
 
-    public void save() {
+    /**
+     * write pending changes (if any) to disk immediately.
+     */
+    @Override
+    public void flush() {
+        if (this.dirty.compareAndSet(true, false)) {
+            try {
+                this.save();
+            } catch (final RuntimeException e) {
+                this.dirty.set(true);
+                log.warn("failed to flush machine store to {}", dataFile, e);
+            }
+        }
+    }
+
+    /**
+     * @return number of times the data file has been physically written.
+     */
+    public long getWriteCount() {
+        return this.writeCount.get();
+    }
+
+    public synchronized void save() {
+        final Path target = Paths.get(dataFile).toAbsolutePath();
+        Path temp = null;
         try {
-            FileUtils.writeStringToFile(new File(dataFile), JsonUtils.toJson(map), "utf8");
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(temp, JsonUtils.toJson(new HashMap<>(map)).getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.writeCount.incrementAndGet();
         } catch (final AzureToolkitRuntimeException e) {
             throw e;
         } catch (Exception ex) {
             throw new AzureToolkitRuntimeException("Cannot save property", ex);
+        } finally {
+            if (temp != null) {
+                FileUtils.deleteQuietly(temp.toFile());
+            }
         }
     }
 
@@ -6,4 +6,9 @@
 package com.microsoft.azure.toolkit.ide.common.store;
 
 public interface IMachineStore extends IPropertyStore {
+    /**
+     * write pending changes (if any) to disk immediately, stores writing through on every change don't need to override it.
+     */
+    default void flush() {
+    }
 }
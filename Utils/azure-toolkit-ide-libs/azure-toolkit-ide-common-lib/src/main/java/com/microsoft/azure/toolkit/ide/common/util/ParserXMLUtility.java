@@ -11,13 +11,20 @@ import org.w3c.dom.Node;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.File;
@@ -26,13 +33,30 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 
+/**
+ * JAXP objects are neither cheap to look up nor thread-safe, so document builders, transformers and XPath instances are
+ * created once per thread and reused, and compiled XPath expressions are kept in a per-thread LRU cache.
+ */
 public final class ParserXMLUtility {
 
     private static final int BUFF_SIZE = 1024;
+    private static final int MAX_CACHED_EXPRESSIONS = 64;
     public static final String INVALID_ARG = "Invalid argument.";
 
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(ParserXMLUtility::createDocumentBuilder);
+    private static final ThreadLocal<Transformer> TRANSFORMER = ThreadLocal.withInitial(ParserXMLUtility::createTransformer);
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+    private static final ThreadLocal<Map<String, XPathExpression>> EXPRESSIONS = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > MAX_CACHED_EXPRESSIONS;
+                }
+            });
     /**
      * Parses XML file and returns XML document.
      *
@@ -42,23 +66,8 @@ public final class ParserXMLUtility {
      */
     public static Document parseXMLFile(final String fileName)
             throws Exception {
-        final ClassLoader current = Thread.currentThread().getContextClassLoader();
-        try {
-            Thread.currentThread().setContextClassLoader(ParserXMLUtility.class.getClassLoader());
-            // fixes https://dev.azure.com/mseng/VSJava/_workitems/edit/1796447
-            // refers https://jetbrains.org/intellij/sdk/docs/basics/plugin_structure/plugin_class_loaders.html
-            DocumentBuilder docBuilder;
-            Document doc = null;
-            DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory
-                    .newInstance();
-            docBuilderFactory.setIgnoringElementContentWhitespace(true);
-            docBuilder = docBuilderFactory.newDocumentBuilder();
-            File xmlFile = new File(fileName);
-            doc = docBuilder.parse(xmlFile);
-            return doc;
-        } finally {
-            Thread.currentThread().setContextClassLoader(current);
-        }
+        File xmlFile = new File(fileName);
+        return getDocumentBuilder().parse(xmlFile);
     }
 
     /**
@@ -70,14 +79,48 @@ public final class ParserXMLUtility {
      */
     protected static Document parseXMLResource(final InputStream inputStream)
             throws Exception {
-        DocumentBuilder docBuilder;
-        Document doc = null;
-        DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory
-                .newInstance();
-        docBuilderFactory.setIgnoringElementContentWhitespace(true);
-        docBuilder = docBuilderFactory.newDocumentBuilder();
-        doc = docBuilder.parse(inputStream);
-        return doc;
+        return getDocumentBuilder().parse(inputStream);
+    }
+
+    /**
+     * Reads the value of attribute {@code valueAttribute} of the first element named {@code elementName}, which is a direct
+     * child of the root element named {@code rootName}, whose attribute {@code keyAttribute} equals {@code keyValue}, by
+     * streaming the file instead of building the DOM. E.g. {@code readAttributeValue(file, "data", "property", "name", key,
+     * "value")} is the same as evaluating {@code /data/property[@name='key']/@value}.
+     *
+     * @return the attribute value, or an empty string if not found (same as evaluating the equivalent XPath)
+     */
+    public static String readAttributeValue(final String fileName, final String rootName, final String elementName,
+                                            final String keyAttribute, final String keyValue, final String valueAttribute)
+            throws IOException, XMLStreamException {
+        if (fileName == null || rootName == null || elementName == null || keyAttribute == null || valueAttribute == null) {
+            throw new IllegalArgumentException(INVALID_ARG);
+        }
+        try (InputStream in = new FileInputStream(fileName)) {
+            final XMLStreamReader reader = InputFactoryHolder.INSTANCE.createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 1 && !rootName.equals(reader.getLocalName())) {
+                            return "";
+                        }
+                        if (depth == 2 && elementName.equals(reader.getLocalName())
+                                && Objects.equals(keyValue, reader.getAttributeValue(null, keyAttribute))) {
+                            final String value = reader.getAttributeValue(null, valueAttribute);
+                            return value == null ? "" : value;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return "";
     }
 
     /**
@@ -94,19 +137,13 @@ public final class ParserXMLUtility {
             throws Exception {
         File xmlFile = null;
         FileOutputStream fos = null;
-        Transformer transformer;
         try {
             xmlFile = new File(fileName);
             fos = new FileOutputStream(xmlFile);
-            TransformerFactory transFactory = TransformerFactory.newInstance();
-            transformer = transFactory.newTransformer();
             DOMSource source = new DOMSource(doc);
             StreamResult destination = new StreamResult(fos);
             // transform source into result will do save
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(
-                    "{http://xml.apache.org/xslt}indent-amount", "2");
-            transformer.transform(source, destination);
+            TRANSFORMER.get().transform(source, destination);
         } finally {
             if (fos != null) {
                 fos.close();
@@ -179,8 +216,7 @@ public final class ParserXMLUtility {
         if (doc == null) {
             throw new IllegalArgumentException(INVALID_ARG);
         } else {
-            XPath path = XPathFactory.newInstance().newXPath();
-            Element element = (Element) path.evaluate(expr, doc,
+            Element element = (Element) compile(expr).evaluate(doc,
                     XPathConstants.NODE);
 
             if (element != null) {
@@ -200,8 +236,7 @@ public final class ParserXMLUtility {
             throw new IllegalArgumentException(INVALID_ARG);
         }
 
-        XPath path = XPathFactory.newInstance().newXPath();
-        return path.evaluate(expr, doc);
+        return compile(expr).evaluate(doc);
     }
 
     /**
@@ -213,8 +248,7 @@ public final class ParserXMLUtility {
             throw new IllegalArgumentException(INVALID_ARG);
         }
 
-        XPath path = XPathFactory.newInstance().newXPath();
-        Node node = (Node) path.evaluate(expr, doc, XPathConstants.NODE);
+        Node node = (Node) compile(expr).evaluate(doc, XPathConstants.NODE);
         node.setNodeValue(value);
     }
 
@@ -293,18 +327,17 @@ public final class ParserXMLUtility {
         if (doc == null) {
             throw new IllegalArgumentException(INVALID_ARG);
         } else {
-            XPath path = XPathFactory.newInstance().newXPath();
             Element element = null;
             if (expr != null) {
-                element = (Element) path.evaluate(expr, doc,
+                element = (Element) compile(expr).evaluate(doc,
                         XPathConstants.NODE);
             }
 
             // If element doesn't exist create one
             if (element == null) {
                 element = doc.createElement(elementName);
-                Element parentElement = (Element) path.evaluate(
-                        parentNodeExpr, doc, XPathConstants.NODE);
+                Element parentElement = (Element) compile(
+                        parentNodeExpr).evaluate(doc, XPathConstants.NODE);
                 if (firstChild) {
                     parentElement.insertBefore(
                             element,
@@ -337,10 +370,9 @@ public final class ParserXMLUtility {
         if (doc == null) {
             throw new IllegalArgumentException(INVALID_ARG);
         } else {
-            XPath path = XPathFactory.newInstance().newXPath();
             Element element = null;
             if (expr != null) {
-                element = (Element) path.evaluate(expr, doc,
+                element = (Element) compile(expr).evaluate(doc,
                         XPathConstants.NODE);
             }
 
@@ -379,9 +411,77 @@ public final class ParserXMLUtility {
         if (nodeExpression == null) {
             throw new IllegalArgumentException(INVALID_ARG);
         } else {
-            XPath path = XPathFactory.newInstance().newXPath();
-            Element element = (Element) path.evaluate(nodeExpression, doc, XPathConstants.NODE);
+            Element element = (Element) compile(nodeExpression).evaluate(doc, XPathConstants.NODE);
             return element != null;
         }
     }
+
+    /**
+     * @return the compiled expression from the cache of the current thread, compiled and cached if absent.
+     */
+    private static XPathExpression compile(String expr) throws XPathExpressionException {
+        final Map<String, XPathExpression> expressions = EXPRESSIONS.get();
+        XPathExpression compiled = expressions.get(expr);
+        if (compiled == null) {
+            compiled = XPATH.get().compile(expr);
+            expressions.put(expr, compiled);
+        }
+        return compiled;
+    }
+
+    private static DocumentBuilder getDocumentBuilder() {
+        final DocumentBuilder builder = DOCUMENT_BUILDER.get();
+        builder.reset();
+        return builder;
+    }
+
+    private static DocumentBuilder createDocumentBuilder() {
+        final ClassLoader current = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(ParserXMLUtility.class.getClassLoader());
+            // fixes https://dev.azure.com/mseng/VSJava/_workitems/edit/1796447
+            // refers https://jetbrains.org/intellij/sdk/docs/basics/plugin_structure/plugin_class_loaders.html
+            DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory
+                    .newInstance();
+            docBuilderFactory.setIgnoringElementContentWhitespace(true);
+            return docBuilderFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            Thread.currentThread().setContextClassLoader(current);
+        }
+    }
+
+    private static Transformer createTransformer() {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty(
+                    "{http://xml.apache.org/xslt}indent-amount", "2");
+            return transformer;
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final ClassLoader current = Thread.currentThread().getContextClassLoader();
+        try {
+            // same as createDocumentBuilder, the StAX implementation is looked up through the context class loader
+            Thread.currentThread().setContextClassLoader(ParserXMLUtility.class.getClassLoader());
+            final XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            return factory;
+        } finally {
+            Thread.currentThread().setContextClassLoader(current);
+        }
+    }
+
+    /**
+     * created on first use rather than at class initialization, a configured factory is safe to share between threads.
+     */
+    private static final class InputFactoryHolder {
+        private static final XMLInputFactory INSTANCE = createInputFactory();
+    }
 }
@@ -201,7 +201,7 @@ public class StorageActionsContributor implements IActionsContributor {
             .withLabel("Download")
             .withIcon(AzureIcons.Action.DOWNLOAD.getIconPath())
             .withIdParam(AzResource::getName)
-            .visibleWhen(s -> s instanceof StorageFile && !((StorageFile) s).isDirectory())
+            .visibleWhen(s -> s instanceof StorageFile)
             .register(am);
 
         new Action<>(COPY_FILE_URL)
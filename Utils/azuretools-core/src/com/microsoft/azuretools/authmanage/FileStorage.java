@@ -8,20 +8,39 @@ package com.microsoft.azuretools.authmanage;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Created by shch on 10/5/2016.
+ *
+ * Reads are served from an in-memory snapshot, which is reloaded only if the file's modification stamp (modified time,
+ * size and file key) changed, e.g. written by another IDE instance. Writes replace the file atomically (temp file,
+ * fsync, rename) while holding an exclusive lock on a sibling ".lock" file, so that concurrent writers, in this or
+ * other processes, never interleave and a crash never leaves a truncated file.
  */
 public class FileStorage {
     private static final String DefaultDir = ".msauth4j";
+    private static final String LOCK_SUFFIX = ".lock";
     private final Path filePath;
+    private final Path lockPath;
     private final ReentrantReadWriteLock rwlock = new ReentrantReadWriteLock();
 
+    private Snapshot snapshot;
+
     public FileStorage(String filename, String baseDirPath) throws IOException {
 
         if (StringUtils.isEmpty(filename)) {
@@ -35,22 +54,47 @@ public class FileStorage {
 
         //Path dirPath = Paths.get(baseDir, WorkingDir);
         if (!Files.exists(baseDir)) {
-            Files.createDirectory(baseDir);
+            Files.createDirectories(baseDir);
         }
 
         filePath = Paths.get(baseDir.toString(), filename);
+        lockPath = Paths.get(baseDir.toString(), filename + LOCK_SUFFIX);
         //log.info("filePath = '" + filePath + "'");
 
         if (!Files.exists(filePath)) {
-            Files.createFile(filePath);
+            try {
+                Files.createFile(filePath);
+            } catch (FileAlreadyExistsException ignored) {
+                // created by another process meanwhile
+            }
         }
     }
 
     public byte[] read() throws IOException {
+        final Object stamp = stampOf(filePath);
         try {
             rwlock.readLock().lock();
-            return Files.readAllBytes(filePath);
+            if (snapshot != null && Objects.equals(snapshot.stamp, stamp)) {
+                return snapshot.copyOfData();
+            }
+        } finally {
+            rwlock.readLock().unlock();
+        }
+        try {
+            rwlock.writeLock().lock();
+            return reload().copyOfData();
+        } finally {
+            rwlock.writeLock().unlock();
+        }
+    }
 
+    /**
+     * @return version of the in-memory snapshot, increased whenever the content is reloaded or written
+     */
+    public long getVersion() {
+        try {
+            rwlock.readLock().lock();
+            return snapshot == null ? 0 : snapshot.version;
         } finally {
             rwlock.readLock().unlock();
         }
@@ -59,8 +103,9 @@ public class FileStorage {
     public void write(byte[] data) throws IOException {
         try {
             rwlock.writeLock().lock();
-            Files.write(filePath, data);
-
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+                writeAtomically(data);
+            }
         } finally {
             rwlock.writeLock().unlock();
         }
@@ -73,7 +118,10 @@ public class FileStorage {
     public void removeFile() throws IOException {
         try {
             rwlock.writeLock().lock();
-            Files.deleteIfExists(filePath);
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+                Files.deleteIfExists(filePath);
+                snapshot = null;
+            }
         } finally {
             rwlock.writeLock().unlock();
         }
@@ -82,8 +130,15 @@ public class FileStorage {
     public void append(byte[] data) throws IOException {
         try {
             rwlock.writeLock().lock();
-            Files.write(filePath, data, StandardOpenOption.APPEND);
-
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+                // the file may have been changed by other processes, always append to the latest content. it can't change
+                // while the file lock is held, so read it rather than trusting the stamp, which may miss a change (e.g.
+                // there is no file key on Windows and the modified time may be coarse)
+                final byte[] current = readFile();
+                final byte[] result = Arrays.copyOf(current, current.length + data.length);
+                System.arraycopy(data, 0, result, current.length, data.length);
+                writeAtomically(result);
+            }
         } finally {
             rwlock.writeLock().unlock();
         }
@@ -96,4 +151,81 @@ public class FileStorage {
     public void appendln(String string) throws IOException {
         append(string + "\n");
     }
+
+    // must be called with the write lock held
+    private Snapshot reload() throws IOException {
+        final Object stamp = stampOf(filePath);
+        if (snapshot != null && Objects.equals(snapshot.stamp, stamp)) {
+            return snapshot;
+        }
+        final byte[] data = Files.readAllBytes(filePath);
+        // stamp taken before reading, so a concurrent change is detected at the next read at the latest
+        snapshot = new Snapshot(data, stamp, nextVersion());
+        return snapshot;
+    }
+
+    // must be called with both the write lock and the file lock held
+    private byte[] readFile() throws IOException {
+        try {
+            return Files.readAllBytes(filePath);
+        } catch (NoSuchFileException e) {
+            return new byte[]{}; // removed by removeFile()
+        }
+    }
+
+    // must be called with both the write lock and the file lock held
+    private void writeAtomically(byte[] data) throws IOException {
+        final Path temp = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        snapshot = new Snapshot(data.clone(), stampOf(filePath), nextVersion());
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private long nextVersion() {
+        return snapshot == null ? 1 : snapshot.version + 1;
+    }
+
+    private static Object stampOf(Path path) throws IOException {
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            // file key (e.g. inode) changes on every atomic replace where it's supported
+            return Arrays.asList(attrs.lastModifiedTime().toMillis(), attrs.size(), attrs.fileKey());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static class Snapshot {
+        private final byte[] data;
+        private final Object stamp;
+        private final long version;
+
+        Snapshot(byte[] data, Object stamp, long version) {
+            this.data = data;
+            this.stamp = stamp;
+            this.version = version;
+        }
+
+        byte[] copyOfData() {
+            return data.clone();
+        }
+    }
 }
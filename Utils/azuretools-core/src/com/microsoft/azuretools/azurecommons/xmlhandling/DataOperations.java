@@ -7,9 +7,6 @@ package com.microsoft.azuretools.azurecommons.xmlhandling;
 
 import java.util.HashMap;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathFactory;
-
 import com.microsoft.azure.toolkit.ide.common.util.ParserXMLUtility;
 import org.w3c.dom.Document;
 
@@ -44,12 +41,8 @@ public class DataOperations {
     public static String getProperty(String dataFile, String propName) {
         String propVal = null;
         try {
-            Document doc = ParserXMLUtility.parseXMLFile(dataFile);
-            if (doc != null) {
-                String nodeExpr = String.format(PROPERTY_VAL, propName);
-                XPath xPath = XPathFactory.newInstance().newXPath();
-                propVal = xPath.evaluate(nodeExpr, doc);
-            }
+            // streaming equivalent of PROPERTY_VAL, no need to build the DOM for a single lookup
+            propVal = ParserXMLUtility.readAttributeValue(dataFile, "data", "property", "name", propName, "value");
         } catch (Exception ex) {
             // ignore
         }
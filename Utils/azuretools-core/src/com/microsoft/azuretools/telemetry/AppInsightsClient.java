@@ -6,20 +6,26 @@
 package com.microsoft.azuretools.telemetry;
 
 import com.microsoft.azure.toolkit.ide.common.experiment.ExperimentationClient;
-import com.microsoft.azure.toolkit.ide.common.experiment.ExperimentationService;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemeter;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetryClient;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import com.microsoft.azuretools.telemetrywrapper.TelemetryManager;
+import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class AppInsightsClient {
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int BATCH_SIZE = 64;
+    private static final long FLUSH_INTERVAL_MS = 2000;
     static AppInsightsConfiguration configuration;
+    private static final TelemetryEventQueue<PendingEvent> queue =
+            new TelemetryEventQueue<>(QUEUE_CAPACITY, BATCH_SIZE, FLUSH_INTERVAL_MS, AppInsightsClient::send);
 
     public enum EventType {
         Action,
@@ -101,20 +107,59 @@ public class AppInsightsClient {
         if (isAppInsightsClientAvailable() && configuration.validated()) {
             String prefValue = configuration.preferenceVal();
             if (prefValue == null || prefValue.isEmpty() || prefValue.equalsIgnoreCase("true") || force) {
-                AzureTelemetryClient telemetry = TelemetryClientSingleton.getTelemetry();
-                Map<String, String> properties = buildProperties(version, myProperties);
-                synchronized (TelemetryClientSingleton.class) {
-                    telemetry.trackEvent(eventName, properties, metrics);
-                }
+                // only capture the session here, the rest of the properties are built on the batcher thread
+                final Map<String, String> properties = myProperties == null ? null : new HashMap<>(myProperties);
+                queue.offer(new PendingEvent(eventName, version, configuration.sessionId(), properties, metrics));
             }
         }
     }
 
-    private static Map<String, String> buildProperties(String version, Map<String, String> myProperties) {
+    private static void send(List<PendingEvent> batch) {
+        final AzureTelemetryClient telemetry = TelemetryClientSingleton.getTelemetry();
+        final String assignmentContext = StringUtils.defaultString(ExperimentationClient.getAssignmentContext());
+        for (final PendingEvent event : batch) {
+            final Map<String, String> properties = buildProperties(event.version, event.properties, event.sessionId, assignmentContext);
+            telemetry.trackEvent(event.eventName, properties, event.metrics);
+        }
+    }
+
+    /**
+     * deliver all queued events immediately.
+     */
+    public static void flush() {
+        queue.flush();
+    }
+
+    public static long getDroppedEventCount() {
+        return queue.getDroppedCount();
+    }
+
+    public static long getDeliveredEventCount() {
+        return queue.getDeliveredCount();
+    }
+
+    public static int getPendingEventCount() {
+        return queue.getPendingCount();
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingEvent {
+        private final String eventName;
+        @Nullable
+        private final String version;
+        private final String sessionId;
+        @Nullable
+        private final Map<String, String> properties;
+        @Nullable
+        private final Map<String, Double> metrics;
+    }
+
+    private static Map<String, String> buildProperties(String version, Map<String, String> myProperties, String sessionId,
+                                                       String assignmentContext) {
         Map<String, String> properties = myProperties == null ? new HashMap<>() : new HashMap<>(myProperties);
-        properties.put("SessionId", configuration.sessionId());
+        properties.put("SessionId", sessionId);
         properties.put("IDE", configuration.ide());
-        properties.put("AssignmentContext", Optional.ofNullable(ExperimentationClient.getExperimentationService()).map(ExperimentationService::getAssignmentContext).orElse(StringUtils.EMPTY));
+        properties.put("AssignmentContext", assignmentContext);
 
         // Telemetry client doesn't accept null value for ConcurrentHashMap doesn't accept null as key or value..
         properties.entrySet().removeIf(entry -> StringUtils.isEmpty(entry.getKey()) || StringUtils.isEmpty(entry.getValue()));
@@ -142,7 +187,8 @@ public class AppInsightsClient {
             final AzureTelemetryClient client = TelemetryClientSingleton.getTelemetry();
             final Map<String, String> clientDefaultProperties = Optional.ofNullable(client)
                     .map(AzureTelemetryClient::getDefaultProperties).orElse(Collections.emptyMap());
-            final Map<String, String> toolkitDefaultProperties = buildProperties("", clientDefaultProperties);
+            final Map<String, String> toolkitDefaultProperties = buildProperties("", clientDefaultProperties,
+                    configuration.sessionId(), StringUtils.defaultString(ExperimentationClient.getAssignmentContext()));
             TelemetryClientSingleton.setConfiguration(configuration);
             final String eventNamePrefix = configuration.eventName();
             TelemetryManager.getInstance().setTelemetryClient(client);
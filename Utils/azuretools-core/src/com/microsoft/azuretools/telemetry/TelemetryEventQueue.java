@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.telemetry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free hand-off between telemetry producers (often the UI thread) and a single background
+ * thread that delivers events in batches of at most {@code batchSize}, in the order they were offered.
+ * Producers never block: once {@code capacity} events are pending, new events are dropped and counted.
+ */
+@Slf4j
+final class TelemetryEventQueue<T> {
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final int capacity;
+    private final int batchSize;
+    private final Consumer<List<T>> sink;
+    private final ScheduledExecutorService executor;
+
+    TelemetryEventQueue(int capacity, int batchSize, long flushIntervalMs, Consumer<List<T>> sink) {
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "azure-telemetry-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "azure-telemetry-flush"));
+    }
+
+    /**
+     * @return false if the event was dropped because the queue is full
+     */
+    boolean offer(T event) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        queue.offer(event);
+        accepted.incrementAndGet();
+        if (current + 1 >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+        return true;
+    }
+
+    synchronized void flush() {
+        flushScheduled.set(false);
+        List<T> batch;
+        while (!(batch = drain()).isEmpty()) {
+            try {
+                sink.accept(batch);
+                delivered.addAndGet(batch.size());
+            } catch (final Throwable e) {
+                log.debug("failed to deliver {} telemetry events", batch.size(), e);
+            }
+        }
+    }
+
+    private List<T> drain() {
+        final List<T> batch = new ArrayList<>(batchSize);
+        T event;
+        while (batch.size() < batchSize && (event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    int getPendingCount() {
+        return size.get();
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.ui.embeddedbrowser;
+
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes sure the JxBrowser artifacts are present and intact under a target directory.
+ *
+ * The artifacts are downloaded in parallel, each into a {@code .part} file which is resumed with a HTTP range request
+ * after an interruption. The MD5 digest of an artifact is verified once after downloading, and the size and modification
+ * time of every verified artifact are recorded in {@link #VERIFIED_FILE}, so that later starts only compare file
+ * attributes instead of hashing the jars (tens of MB) again.
+ */
+@Slf4j
+public class JxBrowserBootstrap {
+    public static final String VERIFIED_FILE = ".verified";
+    private static final String PART_SUFFIX = ".part";
+    private static final String DIGEST_EXTENSION = ".md5";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 30 * 1000;
+    private static final int READ_TIMEOUT_MS = 60 * 1000;
+    private static final long RETRY_BASE_DELAY_MS = 1000;
+    private static final int RETRY_BACKOFF_FACTOR = 3;
+
+    public interface ProgressListener {
+        /**
+         * @param downloaded bytes downloaded so far, including resumed parts
+         * @param total      total bytes to download, or -1 if not known yet
+         */
+        void onProgress(long downloaded, long total);
+    }
+
+    @NotNull
+    private final String baseUrl;
+    @NotNull
+    private final Path targetDir;
+    @NotNull
+    private final List<String> artifacts;
+    private final int maxRetryTimes;
+    private final AtomicInteger requestCount = new AtomicInteger(0);
+
+    /**
+     * @param baseUrl   url of the folder which contains the artifacts and their {@code .md5} digest files
+     * @param artifacts file names of the artifacts
+     */
+    public JxBrowserBootstrap(@NotNull String baseUrl, @NotNull Path targetDir, @NotNull List<String> artifacts,
+                              int maxRetryTimes) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.targetDir = targetDir;
+        this.artifacts = new ArrayList<>(artifacts);
+        this.maxRetryTimes = maxRetryTimes;
+    }
+
+    /**
+     * Download the missing or corrupted artifacts.
+     *
+     * @return paths of all artifacts, in the order they were given
+     */
+    @NotNull
+    public synchronized List<Path> bootstrap(@Nullable ProgressListener listener) throws JxBrowserException {
+        try {
+            Files.createDirectories(targetDir);
+            final VerifiedArtifacts verified = VerifiedArtifacts.load(targetDir.resolve(VERIFIED_FILE));
+            final List<String> missing = new ArrayList<>();
+            for (final String artifact : artifacts) {
+                if (!verified.isVerified(targetDir.resolve(artifact))) {
+                    missing.add(artifact);
+                }
+            }
+            if (!missing.isEmpty()) {
+                log.debug("Downloading JxBrowser artifacts " + missing);
+                download(missing, listener);
+                for (final String artifact : missing) {
+                    verified.add(targetDir.resolve(artifact));
+                }
+                verified.save();
+            }
+
+            final List<Path> result = new ArrayList<>();
+            for (final String artifact : artifacts) {
+                result.add(targetDir.resolve(artifact));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new JxBrowserException("Fail to download JxBrowser: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of HTTP requests issued so far
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    private void download(@NotNull List<String> missing, @Nullable ProgressListener listener) throws JxBrowserException {
+        final Progress progress = new Progress(listener);
+        final ExecutorService threadPool = Executors.newFixedThreadPool(missing.size());
+        try {
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (final String artifact : missing) {
+                futures.add(CompletableFuture.runAsync(() -> downloadWithRetry(artifact, progress), threadPool));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw new JxBrowserException(cause.getMessage());
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    private void downloadWithRetry(@NotNull String artifact, @NotNull Progress progress) {
+        long delay = RETRY_BASE_DELAY_MS;
+        for (int retry = 0; ; retry++) {
+            try {
+                downloadAndVerify(artifact, progress);
+                return;
+            } catch (IOException e) {
+                if (retry >= maxRetryTimes) {
+                    throw new CompletionException(new JxBrowserException(
+                            String.format("Fail to download %s after %d retries: %s", artifact, retry, e.getMessage())));
+                }
+                log.warn(String.format("Fail to download %s, retry in %d ms: %s", artifact, delay, e.getMessage()));
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(ie);
+                }
+                delay *= RETRY_BACKOFF_FACTOR;
+            }
+        }
+    }
+
+    private void downloadAndVerify(@NotNull String artifact, @NotNull Progress progress) throws IOException {
+        final String digestName = FilenameUtils.removeExtension(artifact) + DIGEST_EXTENSION;
+        final String expectedDigest = readDigest(digestName);
+        final Path target = targetDir.resolve(artifact);
+        final Path part = targetDir.resolve(artifact + PART_SUFFIX);
+        if (Files.isRegularFile(target) && expectedDigest.equalsIgnoreCase(md5(target))) {
+            return; // downloaded before, but not recorded as verified yet
+        }
+
+        downloadToPart(artifact, part, progress);
+        final String actualDigest = md5(part);
+        if (!expectedDigest.equalsIgnoreCase(actualDigest)) {
+            // the part can't be resumed any more, start over at the next retry
+            Files.deleteIfExists(part);
+            throw new IOException(String.format("Check sum error for %s, expected %s but was %s",
+                    artifact, expectedDigest, actualDigest));
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @NotNull
+    private String readDigest(@NotNull String digestName) throws IOException {
+        final HttpURLConnection connection = open(digestName);
+        try {
+            checkResponse(connection, digestName);
+            try (InputStream in = connection.getInputStream()) {
+                return IOUtils.toString(in, StandardCharsets.UTF_8).trim();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void downloadToPart(@NotNull String artifact, @NotNull Path part, @NotNull Progress progress) throws IOException {
+        final long existing = Files.isRegularFile(part) ? Files.size(part) : 0;
+        final HttpURLConnection connection = open(artifact);
+        try {
+            if (existing > 0) {
+                connection.setRequestProperty("Range", "bytes=" + existing + "-");
+            }
+            final int code = connection.getResponseCode();
+            if (code == 416) {
+                // the part is already complete (or longer than the artifact), let the digest decide
+                return;
+            }
+            checkResponse(connection, artifact);
+            final boolean resumed = code == HttpURLConnection.HTTP_PARTIAL;
+            final long length = connection.getContentLengthLong();
+            progress.addTotal(length < 0 ? -1 : (resumed ? existing + length : length));
+            progress.addDownloaded(resumed ? existing : 0);
+
+            final StandardOpenOption mode = resumed ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+            try (InputStream in = connection.getInputStream();
+                 OutputStream out = Files.newOutputStream(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    progress.addDownloaded(read);
+                }
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @NotNull
+    private HttpURLConnection open(@NotNull String fileName) throws IOException {
+        requestCount.incrementAndGet();
+        final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + fileName).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        return connection;
+    }
+
+    private static void checkResponse(@NotNull HttpURLConnection connection, @NotNull String fileName) throws IOException {
+        final int code = connection.getResponseCode();
+        if (code != HttpURLConnection.HTTP_OK && code != HttpURLConnection.HTTP_PARTIAL) {
+            throw new IOException(String.format("Fail to download %s: %d %s", fileName, code, connection.getResponseMessage()));
+        }
+    }
+
+    @NotNull
+    private static String md5(@NotNull Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return DigestUtils.md5Hex(in);
+        }
+    }
+
+    private static class Progress {
+        @Nullable
+        private final ProgressListener listener;
+        private final AtomicLong downloaded = new AtomicLong(0);
+        private final AtomicLong total = new AtomicLong(0);
+
+        Progress(@Nullable ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        void addTotal(long bytes) {
+            if (bytes < 0) {
+                total.set(-1);
+            } else {
+                total.getAndUpdate(t -> t < 0 ? t : t + bytes);
+            }
+        }
+
+        void addDownloaded(long bytes) {
+            final long current = downloaded.addAndGet(bytes);
+            if (listener != null) {
+                listener.onProgress(current, total.get());
+            }
+        }
+    }
+
+    /**
+     * Records of verified artifacts, one {@code name|size|modifiedTime} per line.
+     */
+    private static class VerifiedArtifacts {
+        private final Path file;
+        private final List<String> records;
+
+        private VerifiedArtifacts(Path file, List<String> records) {
+            this.file = file;
+            this.records = records;
+        }
+
+        static VerifiedArtifacts load(@NotNull Path file) throws IOException {
+            final List<String> records = Files.isRegularFile(file) ?
+                    new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8)) : new ArrayList<>();
+            return new VerifiedArtifacts(file, records);
+        }
+
+        boolean isVerified(@NotNull Path artifact) throws IOException {
+            return Files.isRegularFile(artifact) && records.contains(recordOf(artifact));
+        }
+
+        void add(@NotNull Path artifact) throws IOException {
+            final String prefix = artifact.getFileName() + "|";
+            records.removeIf(r -> r.startsWith(prefix));
+            records.add(recordOf(artifact));
+        }
+
+        void save() throws IOException {
+            final Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, records, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                FileUtils.deleteQuietly(temp.toFile());
+            }
+        }
+
+        @NotNull
+        private static String recordOf(@NotNull Path artifact) throws IOException {
+            return String.format("%s|%d|%d", artifact.getFileName(), Files.size(artifact),
+                    Files.getLastModifiedTime(artifact).toMillis());
+        }
+    }
+}
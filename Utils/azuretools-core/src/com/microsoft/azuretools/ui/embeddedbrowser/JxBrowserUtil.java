@@ -5,28 +5,20 @@
 
 package com.microsoft.azuretools.ui.embeddedbrowser;
 
-import com.microsoft.azure.storage.blob.CloudBlobClient;
-import com.microsoft.azure.storage.blob.CloudBlobContainer;
-import com.microsoft.azure.storage.blob.CloudBlockBlob;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 
 import javax.swing.*;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.awt.*;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.List;
 import java.util.concurrent.*;
 /**
  * Use JxBrowser to load URL for Swing, AWT or JavaFX UIs
@@ -34,7 +26,6 @@ import java.util.concurrent.*;
 @Slf4j
 public class JxBrowserUtil {
     public static int MAX_RETRY_TIMES = 3;
-    public static int MAX_WAIT_TIME_IN_SECONDS = 120;
 
     public static final LoadedClassesAndMethods loadedClasses = new LoadedClassesAndMethods();
 
@@ -52,9 +43,9 @@ public class JxBrowserUtil {
     private static final String JXBROWSER_CLASS_BROWSERVIEW = "com.teamdev.jxbrowser.chromium.swing.BrowserView";
     private static final String JXBROWSER_CLASS_BROWSER = "com.teamdev.jxbrowser.chromium.Browser";
     private static final String AZURE_BLOB_URI = "https://hdinsighttool.azureedge.net";
+    private static final String AZURE_BLOB_CONTAINER = "libcontainer1";
     private static final String JXBROWSER_LICENSE_FILE = "license.jar";
     private static final String JXBROWSER_COMMON_JAR = "jxbrowser-6.16.jar";
-    private static final int RETRY_BACKOFF_FACTOR = 3;
 
     /**
      * Return JComponent to be used in Swing
@@ -62,12 +53,52 @@ public class JxBrowserUtil {
      * @return JComponent (JxBrowser BrowserView) that can be added to Swing UI
      */
     public static CompletableFuture<JComponent> createBrowserViewAndLoadURL(@NotNull final String url, final String targetPath) {
+        return createBrowserViewAndLoadURL(url, targetPath, null);
+    }
+
+    /**
+     * Return a lightweight placeholder to be added to Swing UI right away, which shows the download progress while
+     * JxBrowser is being bootstrapped and is replaced by the browser view (or an error message) once it's done.
+     * @param url
+     * @return the placeholder panel
+     */
+    public static JComponent createBrowserViewPlaceholder(@NotNull final String url, final String targetPath) {
+        final JPanel placeholder = new JPanel(new BorderLayout());
+        final JLabel label = new JLabel("Loading embedded browser...", SwingConstants.CENTER);
+        final JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setIndeterminate(true);
+        placeholder.add(label, BorderLayout.CENTER);
+        placeholder.add(progressBar, BorderLayout.SOUTH);
+
+        createBrowserViewAndLoadURL(url, targetPath, (downloaded, total) -> SwingUtilities.invokeLater(() -> {
+            label.setText("Downloading embedded browser...");
+            if (total > 0) {
+                progressBar.setIndeterminate(false);
+                progressBar.setValue((int) Math.min(100, downloaded * 100 / total));
+            }
+        })).whenComplete((browserView, e) -> SwingUtilities.invokeLater(() -> {
+            placeholder.removeAll();
+            if (e != null) {
+                final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                placeholder.add(new JLabel("Fail to load embedded browser: " + cause.getMessage(), SwingConstants.CENTER),
+                        BorderLayout.CENTER);
+            } else {
+                placeholder.add(browserView, BorderLayout.CENTER);
+            }
+            placeholder.revalidate();
+            placeholder.repaint();
+        }));
+        return placeholder;
+    }
+
+    private static CompletableFuture<JComponent> createBrowserViewAndLoadURL(@NotNull final String url, final String targetPath,
+                                                                             @Nullable final JxBrowserBootstrap.ProgressListener listener) {
         log.debug("Start to download, create browser view and load URL at time " + System.currentTimeMillis());
         CompletableFuture<JComponent> downloadAndLoadClassesTask = CompletableFuture.supplyAsync(() -> {
             synchronized (JxBrowserUtil.class) {
                 if (!loadedClasses.isLoaded()) {
                     try {
-                        downloadAndLoadClasses(targetPath);
+                        downloadAndLoadClasses(targetPath, listener);
                     } catch (JxBrowserException e) {
                         throw new CompletionException(e);
                     }
@@ -105,26 +136,18 @@ public class JxBrowserUtil {
      * @param targetPath
      * @throws JxBrowserException
      */
-    private static void downloadAndLoadClasses(String targetPath) throws JxBrowserException {
+    private static void downloadAndLoadClasses(String targetPath, @Nullable JxBrowserBootstrap.ProgressListener listener)
+            throws JxBrowserException {
+        // the bootstrap only downloads artifacts which are missing or not verified yet
+        final List<Path> jars = new JxBrowserBootstrap(AZURE_BLOB_URI + "/" + AZURE_BLOB_CONTAINER, Paths.get(targetPath),
+                Arrays.asList(JXBROWSER_COMMON_JAR, getJxBrowserJarFileName(), JXBROWSER_LICENSE_FILE), MAX_RETRY_TIMES)
+                .bootstrap(listener);
         try {
-            Path jxBrowserJarPath = Paths.get(targetPath, getJxBrowserJarFileName());
-            Path licenseJarPath = Paths.get(targetPath, JXBROWSER_LICENSE_FILE);
-            Path commonJarPath = Paths.get(targetPath, JXBROWSER_COMMON_JAR);
-            File jxBrowserJarFile = jxBrowserJarPath.toFile();
-            File licenseJarFile = licenseJarPath.toFile();
-            File commonJarFile = commonJarPath.toFile();
-
-            if (!licenseJarFile.exists() || !licenseJarFile.isFile()
-                    || !jxBrowserJarFile.exists() || !jxBrowserJarFile.isFile()
-                    || !commonJarFile.exists() || !commonJarFile.isFile()) {
-                FileUtils.deleteQuietly(jxBrowserJarFile);
-                FileUtils.deleteQuietly(licenseJarFile);
-                FileUtils.deleteQuietly(commonJarFile);
-                downloadFilesFromAzure(Arrays.asList(jxBrowserJarPath, commonJarPath, licenseJarPath));
+            final URL[] urls = new URL[jars.size()];
+            for (int i = 0; i < jars.size(); i++) {
+                urls[i] = jars.get(i).toUri().toURL();
             }
 
-            URL[] urls = new URL[] {commonJarFile.toURI().toURL(), jxBrowserJarFile.toURI().toURL(), licenseJarFile.toURI().toURL()};
-
             ClassLoader classLoader = new URLClassLoader(urls, JxBrowserUtil.class.getClassLoader());
 
             loadedClasses.browserClass = Class.forName(JXBROWSER_CLASS_BROWSER, true, classLoader);
@@ -136,165 +159,6 @@ public class JxBrowserUtil {
         }
     }
 
-    /**
-     * Download JxBrowser jars (i.e. jxbrowser-win32-6.16.jar and license.jar) and check digest (with retries) into given targetPath
-     * @param filePathNames
-     * @return
-     */
-    private static boolean downloadFilesFromAzure(@NotNull List<Path> filePathNames) {
-        boolean result = true;
-        ExecutorService threadPool = Executors.newFixedThreadPool(2);
-        try {
-            downloadAndCheckDigest(threadPool, filePathNames);
-
-            threadPool.shutdown();
-            threadPool.awaitTermination((long) (MAX_WAIT_TIME_IN_SECONDS * Math.pow(RETRY_BACKOFF_FACTOR, MAX_RETRY_TIMES)), TimeUnit.SECONDS);
-        } catch (Exception ex) {
-            log.error("Download JxBrowser jars failed with exception " + ex.getMessage());
-            result = false;
-        } finally {
-            threadPool.shutdownNow();
-        }
-
-        return result;
-    }
-
-    /**
-     * Check the file correctness by comparing the MD5 digest with the digest file. Return true if both file and digest exist and match.
-     * @param filePathName
-     * @param digestFilePathName
-     * @return
-     */
-    private static boolean checkFileDigest(@NotNull Path filePathName, @NotNull Path digestFilePathName) {
-        File targetFile = filePathName.toFile();
-        if (!targetFile.exists() || !targetFile.isFile()) {
-            log.debug(filePathName + " doesn't exist");
-            return false;
-        }
-
-        File digestFile = digestFilePathName.toFile();
-        if (!digestFile.exists() || !digestFile.isFile()) {
-            log.debug(digestFilePathName + " doesn't exist");
-            return false;
-        }
-
-        FileInputStream targetFileStream = null;
-        String digestFileContent = "content";
-        String digest = "digest";
-        boolean result = true;
-        try {
-            targetFileStream = new FileInputStream(targetFile);
-            digest = DigestUtils.md5Hex(targetFileStream).toUpperCase();
-            digestFileContent = FileUtils.readFileToString(digestFile, "UTF-8");
-            targetFileStream.close();
-        } catch (IOException e) {
-            log.warn(String.format("Fail to read file %s or digest %s", filePathName, digestFilePathName));
-            result = false;
-        } finally {
-            IOUtils.closeQuietly(targetFileStream);
-        }
-
-        if (digestFileContent.equals(digest) == false) {
-            log.warn(String.format("Check sum error for file %s and digest file %s", filePathName, digestFilePathName));
-            return false;
-        }
-
-        return result;
-    }
-
-    /**
-     * Download file from Azure and save to target path specified. Return true if download succeeds
-     * @param filePathName
-     * @return
-     */
-    private static Boolean downloadFromAzure(@NotNull Path filePathName) {
-        boolean result = true;
-        try {
-            URI cloudBlobUri = new URI(AZURE_BLOB_URI);
-            CloudBlobClient serviceClient = new CloudBlobClient(cloudBlobUri);
-            CloudBlobContainer container = serviceClient.getContainerReference("libcontainer1");
-            CloudBlockBlob blob = container.getBlockBlobReference(filePathName.getFileName().toString());
-            File downloadingFile = filePathName.toFile();
-            blob.downloadToFile(downloadingFile.getAbsolutePath());
-        } catch (Exception e) {
-            result = false;
-            log.warn("Fail to download file from Azure: " + e.getMessage());
-        }
-
-        return result;
-    }
-
-    /**
-     * Download file and check digest with retry. Return false if all retry fails
-     * @param threadPool
-     * @param filePathNameList
-     * @param retryLeft
-     * @param waitTime
-     * @return
-     */
-    private static boolean downloadAndCheckDigest(@NotNull ExecutorService threadPool, @NotNull List<Path> filePathNameList, int retryLeft, int waitTime) {
-        List<Path> filePathNames = new ArrayList<>(filePathNameList);
-        List<Path> digestPathNames = new ArrayList<>();
-        for (int i = 0; i < filePathNames.size(); i++) {
-            digestPathNames.add(Paths.get(FilenameUtils.removeExtension(filePathNames.get(i).toString()) + ".md5"));
-        }
-
-        boolean result = true;
-        try {
-            int i = filePathNames.size() - 1;
-            for (; i >= 0; i--) {
-                if (checkFileDigest(filePathNames.get(i), digestPathNames.get(i)))  {
-                    filePathNames.remove(i);
-                    digestPathNames.remove(i);
-                }
-            }
-
-            if (filePathNames.isEmpty()) {
-                return true;
-            }
-
-            if (retryLeft < 0) {
-                log.warn("Maximum retry time reached. Fail to download" + filePathNames.get(0));
-                return false;
-            }
-
-            for (i = 0; i < filePathNames.size(); i++) {
-                FileUtils.deleteQuietly(filePathNames.get(i).toFile());
-                FileUtils.deleteQuietly(digestPathNames.get(i).toFile());
-            }
-
-            List<Callable<Boolean>> downloadThreads = new ArrayList<>();
-            for (i = 0; i < filePathNames.size(); i++) {
-                final Path filePathName = filePathNames.get(i);
-                final Path digestPathName = digestPathNames.get(i);
-                downloadThreads.add(() -> downloadFromAzure(filePathName));
-                downloadThreads.add(() -> downloadFromAzure(digestPathName));
-            };
-
-            List<Future<Boolean>> results = threadPool.invokeAll(downloadThreads, waitTime, TimeUnit.SECONDS);
-
-            for (i = 0; i < results.size(); i++) {
-                if (!results.get(i).get()) {
-                    result = false;
-                }
-            }
-        } catch (Exception ex) {
-            result = false;
-            log.warn(String.format("Download fileName %s fail with exception %s", (filePathNames.size() > 0 ? filePathNames.get(0) : ""), ex.getMessage()));
-        } finally {
-            if (!result) {
-                log.debug("Start to download again with retry count " + retryLeft + " and wait time " + waitTime);
-                result = downloadAndCheckDigest(threadPool, filePathNames, retryLeft - 1, waitTime * RETRY_BACKOFF_FACTOR);
-            }
-        }
-
-        return result;
-    }
-
-    private static boolean downloadAndCheckDigest(@NotNull ExecutorService threadPool, @NotNull List<Path> filePathNames) {
-        return downloadAndCheckDigest(threadPool, filePathNames, MAX_RETRY_TIMES, MAX_WAIT_TIME_IN_SECONDS);
-    }
-
     private static String getJxBrowserJarFileName() throws JxBrowserException {
         String osName = System.getProperty("os.name").toLowerCase();
         String osArch = System.getProperty("os.arch").toLowerCase();
@@ -5,35 +5,64 @@
 
 package com.microsoft.azuretools.utils;
 
-import rx.Observable;
-import rx.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Dispatches refresh events to listeners asynchronously. Every listener owns a serial queue (events are handled in
+ * arrival order) drained on a small shared thread pool of {@link #POOL_SIZE} threads, so a slow or failing listener
+ * doesn't delay or break the other listeners, and identical events still waiting in a queue are coalesced.
+ */
+@Slf4j
 public class AzureUIRefreshCore {
   public static final boolean RUN_LISTENER_EVENT_OPS = false;
+  public static final long SLOW_LISTENER_TIMEOUT_MS = 5000;
   public static Map<String, AzureUIRefreshListener> listeners;
 
+  private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+  private static final Map<String, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+  private static final AtomicLong dispatchedCount = new AtomicLong();
+  private static final AtomicLong coalescedCount = new AtomicLong();
+  private static final ExecutorService EXECUTOR = createExecutor();
+
   public static synchronized void addListener(String id, AzureUIRefreshListener listener) {
     if (listeners == null) {
-      listeners = new HashMap<>();
+      listeners = new ConcurrentHashMap<>();
     }
     listeners.put(id, listener);
+    final Dispatcher old = dispatchers.put(id, new Dispatcher(id, listener));
+    if (old != null) {
+      old.dispose();
+    }
     if (RUN_LISTENER_EVENT_OPS) execute(new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.ADD, id));
   }
 
-  public static synchronized void execute(AzureUIRefreshEvent event) {
-    if (listeners != null && !listeners.isEmpty()) {
-      Observable.from(listeners.values()).flatMap((listener) ->
-          Observable.create( subscriber -> {
-              listener.setEvent(event);
-              listener.run();
-              subscriber.onNext(listener);
-              subscriber.onCompleted();
-          })
-      ).subscribeOn(Schedulers.io()).toBlocking().subscribe();
+  /**
+   * enqueue {@code event} for every registered listener and return immediately.
+   *
+   * @return a future completed once every listener handled the event (failures of a listener are logged, not propagated)
+   */
+  public static CompletableFuture<Void> execute(AzureUIRefreshEvent event) {
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (final Dispatcher dispatcher : dispatchers.values()) {
+      futures.add(dispatcher.enqueue(event));
     }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
   }
 
   public static synchronized void removeListener(String id) {
@@ -41,8 +70,12 @@ public class AzureUIRefreshCore {
       try {
         if (RUN_LISTENER_EVENT_OPS) execute(new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.REMOVE, id));
         listeners.remove(id);
+        final Dispatcher dispatcher = dispatchers.remove(id);
+        if (dispatcher != null) {
+          dispatcher.dispose();
+        }
       } catch (Exception ex) {
-        ex.printStackTrace();
+        log.warn("failed to remove refresh listener '{}'", id, ex);
       }
     }
   }
@@ -52,6 +85,155 @@ public class AzureUIRefreshCore {
       for (String id : listeners.keySet()) {
         if (RUN_LISTENER_EVENT_OPS) execute(new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.REMOVE, id));
       }
+      listeners.clear();
+    }
+    for (final String id : new ArrayList<>(dispatchers.keySet())) {
+      final Dispatcher dispatcher = dispatchers.remove(id);
+      if (dispatcher != null) {
+        dispatcher.dispose();
+      }
+    }
+  }
+
+  public static long getDispatchedCount() {
+    return dispatchedCount.get();
+  }
+
+  public static long getCoalescedCount() {
+    return coalescedCount.get();
+  }
+
+  public static int getPendingCount() {
+    return dispatchers.values().stream().mapToInt(Dispatcher::getPendingCount).sum();
+  }
+
+  private static class Dispatcher {
+    private final String id;
+    private final AzureUIRefreshListener listener;
+    // pending events in arrival order, each with the future completed once it (or an identical event) is handled
+    private final LinkedHashMap<EventKey, CompletableFuture<Void>> pending = new LinkedHashMap<>();
+    private boolean draining = false;
+    private boolean disposed = false;
+
+    Dispatcher(String id, AzureUIRefreshListener listener) {
+      this.id = id;
+      this.listener = listener;
+    }
+
+    CompletableFuture<Void> enqueue(AzureUIRefreshEvent event) {
+      final EventKey key = new EventKey(event);
+      synchronized (pending) {
+        if (disposed) {
+          return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<Void> existing = pending.get(key);
+        if (existing != null) {
+          coalescedCount.incrementAndGet();
+          return existing;
+        }
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.put(key, future);
+        if (!draining) {
+          draining = true;
+          EXECUTOR.execute(this::drain);
+        }
+        return future;
+      }
+    }
+
+    private void drain() {
+      while (true) {
+        final EventKey key;
+        final CompletableFuture<Void> future;
+        synchronized (pending) {
+          final Iterator<Map.Entry<EventKey, CompletableFuture<Void>>> it = pending.entrySet().iterator();
+          if (disposed || !it.hasNext()) {
+            draining = false;
+            return;
+          }
+          final Map.Entry<EventKey, CompletableFuture<Void>> next = it.next();
+          it.remove();
+          key = next.getKey();
+          future = next.getValue();
+        }
+        dispatch(key);
+        future.complete(null);
+      }
+    }
+
+    private void dispatch(EventKey key) {
+      final long start = System.nanoTime();
+      try {
+        listener.setEvent(key.event);
+        listener.run();
+      } catch (final Throwable e) {
+        log.warn("refresh listener '{}' failed to handle event {}", id, key.event.opsType, e);
+      } finally {
+        dispatchedCount.incrementAndGet();
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (elapsed > SLOW_LISTENER_TIMEOUT_MS) {
+          log.warn("refresh listener '{}' took {}ms to handle event {}", id, elapsed, key.event.opsType);
+        }
+      }
+    }
+
+    int getPendingCount() {
+      synchronized (pending) {
+        return pending.size();
+      }
+    }
+
+    void dispose() {
+      synchronized (pending) {
+        disposed = true;
+        // release callers waiting for events which will never be dispatched
+        pending.values().forEach(f -> f.complete(null));
+        pending.clear();
+      }
+    }
+  }
+
+  private static ExecutorService createExecutor() {
+    // a listener queue occupies a thread only while draining, queues beyond the pool size wait for a free thread
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = new Thread(r, "azure-ui-refresh-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  private static class EventKey {
+    private final AzureUIRefreshEvent event;
+
+    EventKey(AzureUIRefreshEvent event) {
+      this.event = event;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof EventKey)) {
+        return false;
+      }
+      final AzureUIRefreshEvent other = ((EventKey) o).event;
+      return event.opsType == other.opsType && Objects.equals(event.object, other.object);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(event.opsType, event.object);
     }
   }
 }
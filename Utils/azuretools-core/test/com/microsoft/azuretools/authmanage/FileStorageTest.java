@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.authmanage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileStorageTest {
+    private static final String FILE_NAME = "storage.txt";
+    private static final int PROCESSES = 4;
+    private static final int APPENDS_PER_PROCESS = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadIsServedFromSnapshot() throws Exception {
+        final FileStorage storage = new FileStorage(FILE_NAME, folder.getRoot().getPath());
+        storage.write("hello".getBytes(StandardCharsets.UTF_8));
+        final long version = storage.getVersion();
+
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), storage.read());
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), storage.read());
+        assertEquals(version, storage.getVersion());
+    }
+
+    @Test
+    public void testExternalChangeIsDetected() throws Exception {
+        final FileStorage storage = new FileStorage(FILE_NAME, folder.getRoot().getPath());
+        final FileStorage other = new FileStorage(FILE_NAME, folder.getRoot().getPath());
+        storage.write("first".getBytes(StandardCharsets.UTF_8));
+        final long version = storage.getVersion();
+
+        other.write("second, longer".getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals("second, longer".getBytes(StandardCharsets.UTF_8), storage.read());
+        assertNotEquals(version, storage.getVersion());
+    }
+
+    @Test
+    public void testAppendReadsContentChangedWithSameStamp() throws Exception {
+        final FileStorage storage = new FileStorage(FILE_NAME, folder.getRoot().getPath());
+        storage.write("aaaa".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals("aaaa".getBytes(StandardCharsets.UTF_8), storage.read());
+
+        // rewritten in place by another process, with the same size, file key and modified time
+        final Path file = folder.getRoot().toPath().resolve(FILE_NAME);
+        final FileTime modified = Files.getLastModifiedTime(file);
+        Files.write(file, "bbbb".getBytes(StandardCharsets.UTF_8), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        Files.setLastModifiedTime(file, modified);
+
+        storage.append("c");
+
+        assertArrayEquals("bbbbc".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(file));
+        assertArrayEquals("bbbbc".getBytes(StandardCharsets.UTF_8), storage.read());
+    }
+
+    @Test
+    public void testAppendAfterRemoveFile() throws Exception {
+        final FileStorage storage = new FileStorage(FILE_NAME, folder.getRoot().getPath());
+        storage.write("old".getBytes(StandardCharsets.UTF_8));
+        storage.removeFile();
+
+        storage.append("new");
+
+        assertArrayEquals("new".getBytes(StandardCharsets.UTF_8), storage.read());
+    }
+
+    @Test
+    public void testWriteLeavesNoTempFiles() throws Exception {
+        final FileStorage storage = new FileStorage(FILE_NAME, folder.getRoot().getPath());
+        for (int i = 0; i < 10; i++) {
+            storage.write(("content " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        final String[] files = folder.getRoot().list();
+        assertTrue(Arrays.toString(files), Arrays.stream(files).noneMatch(f -> f.endsWith(".tmp")));
+    }
+
+    @Test
+    public void testConcurrentAppendsFromMultipleProcesses() throws Exception {
+        final File dir = folder.getRoot();
+        new FileStorage(FILE_NAME, dir.getPath()).cleanFile();
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Appender.class.getName(),
+                    dir.getPath(), "p" + i, String.valueOf(APPENDS_PER_PROCESS)).inheritIO().start());
+        }
+        // appends from this process as well
+        final FileStorage storage = new FileStorage(FILE_NAME, dir.getPath());
+        for (int j = 0; j < APPENDS_PER_PROCESS; j++) {
+            storage.appendln("main-" + j);
+        }
+        for (final Process process : processes) {
+            assertTrue(process.waitFor(2, TimeUnit.MINUTES));
+            assertEquals(0, process.exitValue());
+        }
+
+        final List<String> lines = Files.readAllLines(dir.toPath().resolve(FILE_NAME), StandardCharsets.UTF_8);
+        final Set<String> unique = new HashSet<>(lines);
+        assertEquals((PROCESSES + 1) * APPENDS_PER_PROCESS, lines.size());
+        assertEquals(lines.size(), unique.size());
+        for (int i = 0; i < PROCESSES; i++) {
+            for (int j = 0; j < APPENDS_PER_PROCESS; j++) {
+                assertTrue(unique.contains("p" + i + "-" + j));
+            }
+        }
+        assertEquals(lines, Arrays.asList(new String(storage.read(), StandardCharsets.UTF_8).split("\n")));
+    }
+
+    public static class Appender {
+        public static void main(String[] args) throws Exception {
+            final FileStorage storage = new FileStorage(FILE_NAME, args[0]);
+            final int count = Integer.parseInt(args[2]);
+            for (int j = 0; j < count; j++) {
+                storage.appendln(args[1] + "-" + j);
+            }
+        }
+    }
+}
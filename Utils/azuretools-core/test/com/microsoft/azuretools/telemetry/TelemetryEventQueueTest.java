@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.telemetry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TelemetryEventQueueTest {
+    // long enough that the periodic flush never kicks in during a test
+    private static final long NO_PERIODIC_FLUSH = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testEventsBeyondCapacityAreDropped() {
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        final TelemetryEventQueue<Integer> queue = new TelemetryEventQueue<>(10, 100, NO_PERIODIC_FLUSH, batches::add);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(10));
+        assertFalse(queue.offer(11));
+
+        assertEquals(10, queue.getAcceptedCount());
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(10, queue.getPendingCount());
+        assertTrue(batches.isEmpty());
+
+        queue.flush();
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(10, queue.getDeliveredCount());
+        // there is room again once the pending events are delivered
+        assertTrue(queue.offer(12));
+    }
+
+    @Test
+    public void testFlushDeliversInOrderAndInBatches() {
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        final TelemetryEventQueue<Integer> queue = new TelemetryEventQueue<>(1000, 1000, NO_PERIODIC_FLUSH, batches::add);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            queue.offer(i);
+            expected.add(i);
+        }
+
+        queue.flush();
+
+        final List<Integer> delivered = new ArrayList<>();
+        batches.forEach(delivered::addAll);
+        assertEquals(expected, delivered);
+        assertEquals(1, batches.size());
+        assertEquals(250, queue.getDeliveredCount());
+    }
+
+    @Test
+    public void testFullBatchIsDeliveredWithoutExplicitFlush() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        final TelemetryEventQueue<Integer> queue = new TelemetryEventQueue<>(100, 5, NO_PERIODIC_FLUSH, batch -> {
+            batches.add(batch);
+            delivered.countDown();
+        });
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(0), batches.get(0).get(0));
+        assertTrue(batches.get(0).size() <= 5);
+    }
+
+    @Test
+    public void testBatchesAreCappedAtBatchSize() {
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        final TelemetryEventQueue<Integer> queue = new TelemetryEventQueue<>(100, 4, NO_PERIODIC_FLUSH, batches::add);
+        synchronized (queue) {
+            // hold the flush lock so the background flush can't run while the events are offered
+            for (int i = 0; i < 10; i++) {
+                queue.offer(i);
+            }
+        }
+        queue.flush();
+
+        final List<Integer> delivered = new ArrayList<>();
+        for (final List<Integer> batch : batches) {
+            assertTrue(batch.size() <= 4);
+            delivered.addAll(batch);
+        }
+        assertEquals(10, delivered.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), delivered.get(i));
+        }
+    }
+
+    @Test
+    public void testFailingSinkDoesNotStopDelivery() {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final TelemetryEventQueue<Integer> queue = new TelemetryEventQueue<>(100, 2, NO_PERIODIC_FLUSH, batch -> {
+            if (batch.contains(0)) {
+                throw new IllegalStateException("channel unavailable");
+            }
+            batches.add(batch);
+        });
+        synchronized (queue) {
+            for (int i = 0; i < 4; i++) {
+                queue.offer(i);
+            }
+        }
+        queue.flush();
+
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(2, queue.getDeliveredCount());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.ui.embeddedbrowser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JxBrowserBootstrapTest {
+    private static final List<String> ARTIFACTS = Arrays.asList("jxbrowser-6.16.jar", "jxbrowser-linux64-6.16.jar", "license.jar");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private final Map<String, byte[]> files = new HashMap<>();
+    private final Map<String, String> ranges = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        final Random random = new Random(42);
+        for (final String artifact : ARTIFACTS) {
+            final byte[] content = new byte[200 * 1024 + random.nextInt(1024)];
+            random.nextBytes(content);
+            files.put(artifact, content);
+            files.put(artifact.replace(".jar", ".md5"), DigestUtils.md5Hex(content).toUpperCase().getBytes(StandardCharsets.UTF_8));
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serve);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testColdAndWarmStart() throws Exception {
+        final Path target = folder.getRoot().toPath();
+        final AtomicLong lastProgress = new AtomicLong(0);
+        final JxBrowserBootstrap cold = newBootstrap(target);
+        final List<Path> jars = cold.bootstrap((downloaded, total) -> lastProgress.set(downloaded));
+
+        assertEquals(ARTIFACTS.size(), jars.size());
+        for (int i = 0; i < ARTIFACTS.size(); i++) {
+            assertArrayEquals(files.get(ARTIFACTS.get(i)), Files.readAllBytes(jars.get(i)));
+        }
+        // one request for the digest and one for the artifact each
+        assertEquals(ARTIFACTS.size() * 2, cold.getRequestCount());
+        assertEquals(ARTIFACTS.stream().mapToLong(a -> files.get(a).length).sum(), lastProgress.get());
+        assertTrue(Files.isRegularFile(target.resolve(JxBrowserBootstrap.VERIFIED_FILE)));
+
+        final JxBrowserBootstrap warm = newBootstrap(target);
+        assertEquals(jars, warm.bootstrap(null));
+        assertEquals(0, warm.getRequestCount());
+    }
+
+    @Test
+    public void testResumePartialDownload() throws Exception {
+        final Path target = folder.getRoot().toPath();
+        final String artifact = ARTIFACTS.get(1);
+        final byte[] content = files.get(artifact);
+        final int half = content.length / 2;
+        Files.write(target.resolve(artifact + ".part"), Arrays.copyOf(content, half));
+
+        newBootstrap(target).bootstrap(null);
+
+        assertEquals("bytes=" + half + "-", ranges.get(artifact));
+        assertArrayEquals(content, Files.readAllBytes(target.resolve(artifact)));
+        assertFalse(Files.exists(target.resolve(artifact + ".part")));
+    }
+
+    @Test
+    public void testChangedArtifactIsVerifiedAgain() throws Exception {
+        final Path target = folder.getRoot().toPath();
+        newBootstrap(target).bootstrap(null);
+        final Path corrupted = target.resolve(ARTIFACTS.get(0));
+        Files.write(corrupted, "corrupted".getBytes(StandardCharsets.UTF_8));
+
+        final JxBrowserBootstrap bootstrap = newBootstrap(target);
+        bootstrap.bootstrap(null);
+
+        assertArrayEquals(files.get(ARTIFACTS.get(0)), Files.readAllBytes(corrupted));
+        assertEquals(2, bootstrap.getRequestCount());
+    }
+
+    @Test
+    public void testCorruptedDownloadFails() throws Exception {
+        files.put(ARTIFACTS.get(2), "tampered".getBytes(StandardCharsets.UTF_8));
+        final Path target = folder.getRoot().toPath();
+        try {
+            newBootstrap(target).bootstrap(null);
+            fail("checksum mismatch should fail the bootstrap");
+        } catch (JxBrowserException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(ARTIFACTS.get(2)));
+        }
+        assertFalse(Files.exists(target.resolve(ARTIFACTS.get(2))));
+        assertFalse(Files.exists(target.resolve(JxBrowserBootstrap.VERIFIED_FILE)));
+    }
+
+    private JxBrowserBootstrap newBootstrap(Path target) {
+        return new JxBrowserBootstrap("http://127.0.0.1:" + server.getAddress().getPort() + "/container", target, ARTIFACTS, 0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        final String name = exchange.getRequestURI().getPath().substring("/container/".length());
+        final byte[] content = files.get(name);
+        if (content == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        final String range = exchange.getRequestHeaders().getFirst("Range");
+        int from = 0;
+        int code = 200;
+        if (range != null) {
+            ranges.put(name, range);
+            from = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            code = 206;
+            exchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", from, content.length - 1, content.length));
+        }
+        exchange.sendResponseHeaders(code, content.length - from);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content, from, content.length - from);
+        }
+    }
+}
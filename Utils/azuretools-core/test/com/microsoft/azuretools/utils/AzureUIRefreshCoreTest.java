@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azuretools.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AzureUIRefreshCoreTest {
+    private static final int EVENTS = 50;
+
+    @After
+    public void tearDown() {
+        AzureUIRefreshCore.removeAll();
+    }
+
+    @Test
+    public void testEventsAreHandledInOrderPerListener() throws Exception {
+        final List<Object> first = Collections.synchronizedList(new ArrayList<>());
+        final List<Object> second = Collections.synchronizedList(new ArrayList<>());
+        AzureUIRefreshCore.addListener("first", recording(first));
+        AzureUIRefreshCore.addListener("second", recording(second));
+
+        final List<Object> expected = new ArrayList<>();
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < EVENTS; i++) {
+            expected.add(i);
+            last = AzureUIRefreshCore.execute(new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.UPDATE, i));
+        }
+        last.get(10, TimeUnit.SECONDS);
+
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+    }
+
+    @Test
+    public void testSlowOrFailingListenerDoesNotBlockOthers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch handled = new CountDownLatch(1);
+        AzureUIRefreshCore.addListener("slow", new AzureUIRefreshListener() {
+            @Override
+            public void run() {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        AzureUIRefreshCore.addListener("failing", new AzureUIRefreshListener() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("broken listener");
+            }
+        });
+        AzureUIRefreshCore.addListener("fast", new AzureUIRefreshListener() {
+            @Override
+            public void run() {
+                handled.countDown();
+            }
+        });
+
+        final long start = System.nanoTime();
+        final CompletableFuture<Void> all = AzureUIRefreshCore.execute(
+                new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.REFRESH, null));
+        // dispatching is asynchronous, the caller doesn't wait for the slow listener
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertFalse(all.isDone());
+
+        release.countDown();
+        all.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testPendingIdenticalEventsAreCoalesced() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Object> handled = Collections.synchronizedList(new ArrayList<>());
+        AzureUIRefreshCore.addListener("blocked", new AzureUIRefreshListener() {
+            @Override
+            public void run() {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                handled.add(event.object);
+            }
+        });
+
+        final long coalesced = AzureUIRefreshCore.getCoalescedCount();
+        AzureUIRefreshCore.execute(new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.UPDATE, "busy"));
+        // wait until the first event is being handled, so the next ones stay pending
+        while (AzureUIRefreshCore.getPendingCount() > 0) {
+            Thread.sleep(10);
+        }
+        AzureUIRefreshCore.execute(new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.UPDATE, "pending"));
+        final CompletableFuture<Void> last = AzureUIRefreshCore.execute(
+                new AzureUIRefreshEvent(AzureUIRefreshEvent.EventType.UPDATE, "pending"));
+        release.countDown();
+        last.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, AzureUIRefreshCore.getCoalescedCount() - coalesced);
+        assertEquals(2, handled.size());
+    }
+
+    private static AzureUIRefreshListener recording(List<Object> events) {
+        return new AzureUIRefreshListener() {
+            @Override
+            public void run() {
+                events.add(event.object);
+            }
+        };
+    }
+}
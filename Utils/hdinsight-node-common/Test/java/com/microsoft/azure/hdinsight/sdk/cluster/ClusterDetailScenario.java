@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.cluster;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClusterDetailScenario {
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private ClusterDetail clusterDetail;
+    private List<String> userNames;
+
+    @Given("^a cluster whose configuration request takes (\\d+) milliseconds$")
+    public void mockCluster(int delayMs) throws Throwable {
+        final ClusterRawInfo rawInfo = mock(ClusterRawInfo.class, RETURNS_DEEP_STUBS);
+        when(rawInfo.getId()).thenReturn("/subscriptions/sub/resourceGroups/rg/providers/Microsoft.HDInsight/clusters/test");
+        when(rawInfo.getName()).thenReturn("test");
+        when(rawInfo.getProperties().getComputeProfile().getRoles()).thenReturn(Collections.emptyList());
+
+        final Configurations configurations = mock(Configurations.class);
+        final Gateway gateway = mock(Gateway.class);
+        when(gateway.getUsername()).thenReturn("admin");
+        when(configurations.getGateway()).thenReturn(gateway);
+        final ClusterConfiguration configuration = mock(ClusterConfiguration.class);
+        when(configuration.getConfigurations()).thenReturn(configurations);
+
+        final IClusterOperation operation = mock(IClusterOperation.class);
+        when(operation.getClusterConfiguration(any(), any())).thenAnswer(invocation -> {
+            requestCount.incrementAndGet();
+            Thread.sleep(delayMs);
+            return configuration;
+        });
+        clusterDetail = new ClusterDetail(null, rawInfo, operation);
+    }
+
+    @Given("^the cluster configuration has been loaded$")
+    public void loadConfiguration() {
+        clusterDetail.getHttpUserName();
+    }
+
+    @Given("^the cluster configuration has expired$")
+    public void expireConfiguration() throws Throwable {
+        FieldUtils.writeField(clusterDetail, "configInfoLoadedAt", 0L, true);
+    }
+
+    @When("^the background refresh of the cluster configuration has finished$")
+    public void waitForRefresh() throws Throwable {
+        final AtomicReference<?> loading = (AtomicReference<?>) FieldUtils.readField(clusterDetail, "configInfoLoading", true);
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (loading.get() != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNull(loading.get());
+    }
+
+    @When("^(\\d+) threads get the cluster http user name concurrently$")
+    public void getUserNameConcurrently(int threads) {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<CompletableFuture<String>> futures = IntStream.range(0, threads)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                    return clusterDetail.getHttpUserName();
+                }, command -> new Thread(command).start()))
+                .collect(Collectors.toList());
+        start.countDown();
+        userNames = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    @Then("^the cluster configuration should be requested (\\d+) times?$")
+    public void checkRequestCount(int expected) {
+        assertEquals(expected, requestCount.get());
+    }
+
+    @Then("^every thread should get http user name '(.+)'$")
+    public void checkUserNames(String expected) {
+        userNames.forEach(name -> assertEquals(expected, name));
+    }
+}
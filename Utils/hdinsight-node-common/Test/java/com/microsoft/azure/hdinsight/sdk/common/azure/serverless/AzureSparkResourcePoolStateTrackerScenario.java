@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.azure.serverless;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import rx.Observable;
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AzureSparkResourcePoolStateTrackerScenario {
+    private final TestScheduler scheduler = new TestScheduler();
+    private final AtomicBoolean stable = new AtomicBoolean();
+    private final AtomicBoolean pollingReturnsNothing = new AtomicBoolean();
+    private final AtomicReference<String> state = new AtomicReference<>("Running");
+    private final AtomicInteger pollCount = new AtomicInteger();
+    private final List<TestSubscriber<AzureSparkCosmosCluster>> scaleRequests = new ArrayList<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private AzureSparkCosmosCluster cluster;
+    private AzureSparkResourcePoolStateTracker tracker;
+
+    @Given("^a Spark resource pool which is (not )?stable$")
+    public void mockResourcePool(String notStable) {
+        stable.set(notStable == null);
+        cluster = mock(AzureSparkCosmosCluster.class);
+        when(cluster.getName()).thenReturn("pool");
+        when(cluster.isRunning()).thenReturn(true);
+        when(cluster.isStable()).thenAnswer(invocation -> stable.get());
+        when(cluster.getWorkerState()).thenReturn("Running");
+        when(cluster.getClusterStateForShow()).thenAnswer(invocation -> state.get());
+        when(cluster.get()).thenAnswer(invocation -> {
+            pollCount.incrementAndGet();
+            return pollingReturnsNothing.get() ? Observable.empty() : Observable.just(cluster);
+        });
+        when(cluster.patch(anyInt())).thenAnswer(invocation -> Observable.just(cluster));
+        tracker = new AzureSparkResourcePoolStateTracker(cluster, scheduler);
+    }
+
+    @Given("^polling the pool returns nothing$")
+    public void pollingReturnsNothing() {
+        pollingReturnsNothing.set(true);
+    }
+
+    @When("^scaling the pool to (\\d+) workers is requested$")
+    public void requestUpdate(int workers) {
+        final TestSubscriber<AzureSparkCosmosCluster> subscriber = new TestSubscriber<>();
+        scaleRequests.add(subscriber);
+        subscriptions.add(tracker.requestUpdate(workers).subscribe(subscriber));
+    }
+
+    @When("^the scale requests are unsubscribed$")
+    public void unsubscribeRequests() {
+        subscriptions.forEach(Subscription::unsubscribe);
+    }
+
+    @When("^the state transitions are subscribed$")
+    public void subscribeStateTransitions() {
+        subscriptions.add(tracker.getStateTransitions().subscribe());
+    }
+
+    @When("^the pool becomes stable$")
+    public void becomeStable() {
+        stable.set(true);
+    }
+
+    @When("^the pool state changes$")
+    public void changeState() {
+        state.set("Updating");
+    }
+
+    @When("^(\\d+) milliseconds pass$")
+    public void advanceTime(long millis) {
+        scheduler.advanceTimeBy(millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Then("^the pool should have a pending update$")
+    public void checkPendingUpdate() {
+        assertTrue(tracker.hasPendingUpdate());
+    }
+
+    @Then("^the pool should have no pending update$")
+    public void checkNoPendingUpdate() {
+        assertFalse(tracker.hasPendingUpdate());
+    }
+
+    @Then("^the pool should not be patched$")
+    public void checkNotPatched() {
+        verify(cluster, never()).patch(anyInt());
+    }
+
+    @Then("^the pool should be patched to (\\d+) workers only$")
+    public void checkPatched(int workers) {
+        verify(cluster, times(1)).patch(eq(workers));
+        verify(cluster, times(1)).patch(anyInt());
+    }
+
+    @Then("^every scale request should get the updated pool$")
+    public void checkRequestsCompleted() {
+        scaleRequests.forEach(subscriber -> {
+            subscriber.assertNoErrors();
+            subscriber.assertValue(cluster);
+            subscriber.assertCompleted();
+        });
+    }
+
+    @Then("^every scale request should fail as the pool is not ready$")
+    public void checkRequestsFailed() {
+        scaleRequests.forEach(subscriber -> subscriber.assertError(AzureSparkResourcePoolNotReadyException.class));
+    }
+
+    @Then("^the pool should be polled (\\d+) times$")
+    public void checkPollCount(int count) {
+        assertEquals(count, pollCount.get());
+    }
+}
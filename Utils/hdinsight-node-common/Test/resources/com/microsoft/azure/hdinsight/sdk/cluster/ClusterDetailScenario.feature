@@ -0,0 +1,16 @@
+Feature: ClusterDetail configuration loading
+
+  Scenario: Concurrent callers share a single configuration request
+    Given a cluster whose configuration request takes 200 milliseconds
+    When 16 threads get the cluster http user name concurrently
+    Then the cluster configuration should be requested 1 time
+    And every thread should get http user name 'admin'
+
+  Scenario: Concurrent callers refresh an expired configuration once
+    Given a cluster whose configuration request takes 200 milliseconds
+    And the cluster configuration has been loaded
+    And the cluster configuration has expired
+    When 16 threads get the cluster http user name concurrently
+    And the background refresh of the cluster configuration has finished
+    Then the cluster configuration should be requested 2 times
+    And every thread should get http user name 'admin'
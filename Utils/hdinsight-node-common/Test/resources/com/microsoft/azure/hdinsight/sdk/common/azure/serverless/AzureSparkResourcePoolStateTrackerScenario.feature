@@ -0,0 +1,55 @@
+Feature: AzureSparkResourcePoolStateTracker polling and queued scale requests
+
+  Scenario: Scale requests are queued until the pool is stable, the latest one wins
+    Given a Spark resource pool which is not stable
+    When scaling the pool to 3 workers is requested
+    And scaling the pool to 5 workers is requested
+    Then the pool should have a pending update
+    And the pool should not be patched
+    When the pool becomes stable
+    And 2000 milliseconds pass
+    Then the pool should be patched to 5 workers only
+    And every scale request should get the updated pool
+    And the pool should have no pending update
+
+  Scenario: Unsubscribing the only waiter cancels the queued scale request
+    Given a Spark resource pool which is not stable
+    When scaling the pool to 3 workers is requested
+    And the scale requests are unsubscribed
+    Then the pool should have no pending update
+    When the pool becomes stable
+    And 2000 milliseconds pass
+    Then the pool should not be patched
+
+  Scenario: A queued scale request times out and is cancelled
+    Given a Spark resource pool which is not stable
+    When scaling the pool to 3 workers is requested
+    And 300000 milliseconds pass
+    Then every scale request should fail as the pool is not ready
+    And the pool should have no pending update
+
+  Scenario: Polling backs off while the state doesn't change
+    Given a Spark resource pool which is stable
+    When the state transitions are subscribed
+    And 0 milliseconds pass
+    Then the pool should be polled 1 times
+    When 2000 milliseconds pass
+    Then the pool should be polled 2 times
+    When 2999 milliseconds pass
+    Then the pool should be polled 2 times
+    When 1 milliseconds pass
+    Then the pool should be polled 3 times
+    When the pool state changes
+    And 4500 milliseconds pass
+    Then the pool should be polled 4 times
+    When 2000 milliseconds pass
+    Then the pool should be polled 5 times
+
+  Scenario: Polling goes on when getting the pool completes without a value
+    Given a Spark resource pool which is stable
+    And polling the pool returns nothing
+    When the state transitions are subscribed
+    And 0 milliseconds pass
+    Then the pool should be polled 1 times
+    When 3000 milliseconds pass
+    Then the pool should be polled 2 times
@@ -43,7 +43,7 @@ public class CosmosSparkClusterProvisionCtrlProvider implements ILogger {
     }
 
     public Observable<List<String>> getClusterNames() {
-        return account.get()
+        return account.getCachedOrFetch()
                 .onErrorReturn(err -> {
                     log().warn(String.format("Can't get the account %s details: %s", account.getName(), err));
                     return account;
@@ -64,7 +64,7 @@ public class CosmosSparkClusterProvisionCtrlProvider implements ILogger {
     }
 
     private Observable<Integer> getTotalAUAsync() {
-        return account.get()
+        return account.getCachedOrFetch()
                 .onErrorReturn(err -> {
                     log().warn(String.format("Can't get the account %s details: %s", account.getName(), ExceptionUtils.getStackTrace(err)));
                     return account;
@@ -157,6 +157,36 @@ public class ClusterManagerEx implements ILogger {
         return ClusterMetaDataService.getInstance().getCachedClusterDetails();
     }
 
+    /**
+     * Get the clusters known from the last session (persisted by {@link ClusterMetadataCache}) without any network
+     * call. They are not put into the cache, and are only meant to be shown before the clusters are listed again.
+     */
+    @NotNull
+    public ImmutableList<IClusterDetail> getLastKnownClusters() {
+        try {
+            final AzureAccount az = Azure.az(AzureAccount.class);
+            final List<ClusterDetail> lastKnownClusters = az.isLoggedIn()
+                    ? ClusterManager.getInstance().getLastKnownHDInsightClustersWithSpecificType(az.account().getSelectedSubscriptions(), OSTYPE)
+                    : emptyList();
+            List<IClusterDetail> linkedClusters;
+            try {
+                linkedClusters = loadAdditionalClusters();
+            } catch (JsonSyntaxException ignored) {
+                linkedClusters = emptyList();
+            }
+
+            ImmutableSortedSet<IClusterDetail> mergedClusters =
+                    new ImmutableSortedSet.Builder<IClusterDetail>(ComparableCluster::compareTo)
+                            .addAll(linkedClusters)
+                            .addAll(lastKnownClusters)
+                            .build();
+            return mergedClusters.asList();
+        } catch (Exception ex) {
+            log().warn("Failed to load last known HDInsight clusters. " + ExceptionUtils.getStackTrace(ex));
+            return ImmutableList.of();
+        }
+    }
+
     public Predicate<IClusterDetail> getHDInsightClusterFilterPredicate() {
         return clusterDetail -> clusterDetail instanceof ClusterDetail ||
                 clusterDetail instanceof HDInsightAdditionalClusterDetail ||
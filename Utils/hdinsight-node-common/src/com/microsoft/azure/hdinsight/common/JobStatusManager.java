@@ -5,8 +5,12 @@
 
 package com.microsoft.azure.hdinsight.common;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class JobStatusManager {
-    private boolean isJobKilled = false;
+    private final List<Runnable> jobKilledListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean isJobKilled = false;
     private boolean isApplicationGenerated = false;
     private String applicationId;
     private boolean isRunning = false;
@@ -31,6 +35,18 @@ public class JobStatusManager {
     public void setJobKilled() {
         isJobKilled = true;
         isRunning = false;
+        jobKilledListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * @param listener called when the job is killed, so that waiters can be woken up instead of polling {@link #isJobKilled()}
+     */
+    public void addJobKilledListener(Runnable listener) {
+        jobKilledListeners.add(listener);
+    }
+
+    public void removeJobKilledListener(Runnable listener) {
+        jobKilledListeners.remove(listener);
     }
 
     public boolean isApplicationGenerated(){
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.common.task;
+
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.common.HDIException;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps one pooled HTTP client per cluster, so the REST tasks reuse connections instead of building a new client for
+ * every request. The client is replaced when the cluster credentials change, the previous one is closed once the
+ * requests still using it have released their {@link Lease}.
+ */
+@Slf4j
+public class ClusterHttpClients {
+    public static final int MAX_CONNECTIONS_PER_CLUSTER = 16;
+
+    private static final Map<String, CredentialedClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Lease the client of the cluster, it must be closed once the requests issued with it are done. Clusters without
+     * http credentials (e.g. linked, emulator and Livy only clusters) get a client without authentication.
+     *
+     * @throws HDIException if the cluster credentials can't be got, no anonymous client is created
+     */
+    @NotNull
+    public static Lease acquire(@NotNull IClusterDetail clusterDetail) throws HDIException {
+        final String userName;
+        final String password;
+        try {
+            userName = clusterDetail.getHttpUserName();
+            password = clusterDetail.getHttpPassword();
+        } catch (HDIException e) {
+            log.warn("Failed to get the credentials of cluster " + clusterDetail.getName(), e);
+            throw e;
+        }
+
+        final String credentialKey = StringUtils.isEmpty(userName) ? "" : userName + "|" + Objects.hashCode(password);
+        final CredentialedClient[] replaced = new CredentialedClient[1];
+        final CredentialedClient client = clients.compute(clusterDetail.getConnectionUrl(), (cluster, existing) -> {
+            final CredentialedClient result;
+            if (existing != null && existing.credentialKey.equals(credentialKey)) {
+                result = existing;
+            } else {
+                replaced[0] = existing;
+                result = new CredentialedClient(credentialKey, StringUtils.isEmpty(userName) ?
+                        build(null) : build(new UsernamePasswordCredentials(userName, password)));
+            }
+            // leased inside compute(), so a client can't be leased anymore once it's replaced
+            result.leases.incrementAndGet();
+            return result;
+        });
+        if (replaced[0] != null) {
+            replaced[0].retire();
+        }
+        return new Lease(client);
+    }
+
+    @NotNull
+    private static CloseableHttpClient build(@Nullable UsernamePasswordCredentials credentials) {
+        final HttpClientBuilder builder = HttpClients.custom()
+                .useSystemProperties()
+                .setMaxConnPerRoute(MAX_CONNECTIONS_PER_CLUSTER)
+                .setMaxConnTotal(MAX_CONNECTIONS_PER_CLUSTER * 2);
+        if (credentials != null) {
+            final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+            credentialsProvider.setCredentials(AuthScope.ANY, credentials);
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+        return builder.build();
+    }
+
+    public static class Lease implements AutoCloseable {
+        private final CredentialedClient client;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(@NotNull CredentialedClient client) {
+            this.client = client;
+        }
+
+        @NotNull
+        public CloseableHttpClient getClient() {
+            return client.client;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true) && client.leases.decrementAndGet() == 0 && client.retired) {
+                client.closeQuietly();
+            }
+        }
+    }
+
+    private static class CredentialedClient {
+        private final String credentialKey;
+        private final CloseableHttpClient client;
+        private final AtomicInteger leases = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile boolean retired;
+
+        CredentialedClient(String credentialKey, CloseableHttpClient client) {
+            this.credentialKey = credentialKey;
+            this.client = client;
+        }
+
+        void retire() {
+            retired = true;
+            if (leases.get() == 0) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close a replaced cluster http client", e);
+                }
+            }
+        }
+    }
+}
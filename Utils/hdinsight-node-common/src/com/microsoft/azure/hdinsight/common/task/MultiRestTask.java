@@ -6,57 +6,97 @@
 package com.microsoft.azure.hdinsight.common.task;
 
 import com.google.common.util.concurrent.FutureCallback;
-import com.microsoft.azure.hdinsight.common.HttpResponseWithoutHeader;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 
 public class MultiRestTask extends Task<List<String>> {
+    public static final int DEFAULT_PARALLELISM = 8;
+
     protected final IClusterDetail clusterDetail;
     protected final List<String> paths;
-    private final CredentialsProvider credentialsProvider =  new BasicCredentialsProvider();
+    private final int parallelism;
 
     public MultiRestTask(@NotNull IClusterDetail clusterDetail, @NotNull List<String> paths, @NotNull FutureCallback<List<String>> callback) {
+        this(clusterDetail, paths, callback, Integer.getInteger("hdinsight.rest.parallelism", DEFAULT_PARALLELISM));
+    }
+
+    public MultiRestTask(@NotNull IClusterDetail clusterDetail, @NotNull List<String> paths, @NotNull FutureCallback<List<String>> callback, int parallelism) {
         super(callback);
         this.clusterDetail = clusterDetail;
         this.paths = paths;
-        try {
-            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(clusterDetail.getHttpUserName(), clusterDetail.getHttpPassword()));
-        } catch (HDIException e) {
-            e.printStackTrace();
-        }
+        this.parallelism = Math.max(1, parallelism);
     }
 
+    /**
+     * fetch all the paths with at most {@link #parallelism} requests in flight, results keep the order of paths.
+     * the first failure cancels the remaining requests and is rethrown.
+     */
     @Override
     public List<String> call() throws Exception {
-        CloseableHttpClient httpclient = HttpClients.custom()
-                .useSystemProperties()
-                .setDefaultCredentialsProvider(credentialsProvider).build();
-        List<String> results = new ArrayList<>();
-        for(String path: paths) {
-            HttpGet httpGet = new HttpGet(path);
-            httpGet.addHeader("Content-Type", "application/json");
-            CloseableHttpResponse response = httpclient.execute(httpGet);
+        try (ClusterHttpClients.Lease lease = ClusterHttpClients.acquire(clusterDetail)) {
+            return fetchAll(lease.getClient());
+        }
+    }
+
+    private List<String> fetchAll(@NotNull CloseableHttpClient httpclient) throws Exception {
+        final String[] results = new String[paths.size()];
+        final HttpGet[] requests = new HttpGet[paths.size()];
+        final CompletionService<Integer> completionService = new ExecutorCompletionService<>(TaskExecutor.getFetchExecutor());
+        final List<Future<Integer>> futures = new ArrayList<>();
+        int next = 0;
+        int completed = 0;
+        try {
+            while (completed < paths.size()) {
+                while (next < paths.size() && next - completed < parallelism) {
+                    final int index = next++;
+                    final HttpGet httpGet = new HttpGet(paths.get(index));
+                    httpGet.addHeader("Content-Type", "application/json");
+                    requests[index] = httpGet;
+                    futures.add(completionService.submit(() -> {
+                        results[index] = fetch(httpclient, httpGet);
+                        return index;
+                    }));
+                }
+
+                try {
+                    completionService.take().get();
+                    completed++;
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } catch (Exception e) {
+            // fail fast: abort what's still running, and drop what's not yet started
+            Arrays.stream(requests).filter(r -> r != null && !r.isAborted()).forEach(HttpGet::abort);
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private static String fetch(@NotNull CloseableHttpClient httpclient, @NotNull HttpGet httpGet) throws Exception {
+        try (CloseableHttpResponse response = httpclient.execute(httpGet)) {
             int code = response.getStatusLine().getStatusCode();
-            if(code == 200 || code == 201) {
-                results.add(EntityUtils.toString(response.getEntity()));
+            if (code == 200 || code == 201) {
+                return EntityUtils.toString(response.getEntity());
             } else {
+                EntityUtils.consumeQuietly(response.getEntity());
                 throw new HDIException(response.getStatusLine().getReasonPhrase(), code);
             }
         }
-
-        return results;
     }
 }
@@ -12,14 +12,8 @@ import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
 import com.microsoft.azure.hdinsight.common.HttpResponseWithoutHeader;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import org.apache.http.HttpEntity;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -30,29 +24,23 @@ public class RestTask extends Task<String> {
 
     protected final IClusterDetail clusterDetail;
     protected final String path;
-    private final CredentialsProvider credentialsProvider =  new BasicCredentialsProvider();
 
     public RestTask(@NotNull IClusterDetail clusterDetail, @NotNull String path, @NotNull FutureCallback<String> callback) {
         super(callback);
         this.clusterDetail = clusterDetail;
         this.path = path;
-        try {
-            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(clusterDetail.getHttpUserName(), clusterDetail.getHttpPassword()));
-        } catch (HDIException e) {
-            e.printStackTrace();
-        }
     }
 
     @Override
     public String call() throws Exception {
-        CloseableHttpClient httpclient = HttpClients.custom()
-                .useSystemProperties()
-                .setDefaultCredentialsProvider(credentialsProvider).build();
         HttpGet httpGet = new HttpGet(path);
         httpGet.addHeader("Content-Type", "application/json");
 
-        CloseableHttpResponse response = httpclient.execute(httpGet);
-        HttpResponseWithoutHeader header = getResultFromHttpResponse(response);
+        final HttpResponseWithoutHeader header;
+        try (ClusterHttpClients.Lease lease = ClusterHttpClients.acquire(clusterDetail)) {
+            CloseableHttpResponse response = lease.getClient().execute(httpGet);
+            header = getResultFromHttpResponse(response);
+        }
         if(header.getStatusCode() == 200 || header.getStatusCode() == 201) {
             return header.getMessage();
         } else {
@@ -9,16 +9,73 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TaskExecutor {
-    private static ListeningExecutorService executors = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private static final ThreadPoolExecutor taskPool = newBoundedPool("hdinsight-task-%d");
+    private static final ThreadPoolExecutor fetchPool = newBoundedPool("hdinsight-rest-fetch-%d");
+    private static ListeningExecutorService executors = MoreExecutors.listeningDecorator(taskPool);
+
+    private static final AtomicLong completedCount = new AtomicLong();
+    private static final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    private static ThreadPoolExecutor newBoundedPool(@NotNull String nameFormat) {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build(),
+                // when saturated, slow down the submitter instead of growing without bound
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 
     public static <T> ListenableFuture<T> submit(@NotNull Task<T> task) {
+        final long submittedAt = System.nanoTime();
         final ListenableFuture<T> listenableFuture = executors.submit(task);
+        listenableFuture.addListener(() -> {
+            completedCount.incrementAndGet();
+            totalLatencyNanos.addAndGet(System.nanoTime() - submittedAt);
+        }, MoreExecutors.directExecutor());
         Futures.addCallback(listenableFuture, task.callback, MoreExecutors.directExecutor());
         return listenableFuture;
     }
+
+    /**
+     * executor for the sub-requests fanned out by a task, kept apart from the task pool so that tasks waiting on
+     * their sub-requests can never starve them.
+     */
+    @NotNull
+    public static ExecutorService getFetchExecutor() {
+        return fetchPool;
+    }
+
+    public static int getQueueDepth() {
+        return taskPool.getQueue().size();
+    }
+
+    public static int getActiveCount() {
+        return taskPool.getActiveCount();
+    }
+
+    public static long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * @return average time from submission to completion of tasks, in milliseconds
+     */
+    public static double getAverageLatencyMillis() {
+        final long count = completedCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get()) / (double) count;
+    }
 }
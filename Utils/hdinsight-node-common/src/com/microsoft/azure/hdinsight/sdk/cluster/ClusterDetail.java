@@ -24,17 +24,26 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ClusterDetail implements IClusterDetail, LivyCluster, YarnCluster, ILogger  {
 
     private static final String ADL_HOME_PREFIX = "adl://home";
     private static final String ADLS_HOME_HOST_NAME = "dfs.adls.home.hostname";
     private static final String ADLS_HOME_MOUNTPOINT = "dfs.adls.home.mountpoint";
+    // cluster credentials and core-site are refreshed in background once they are older than this
+    private static final long CONFIG_INFO_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long CONFIG_INFO_WAIT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
 
     private final String WorkerNodeName = "workernode";
     private final String DefaultFS = "fs.defaultFS";
@@ -54,7 +63,10 @@ public class ClusterDetail implements IClusterDetail, LivyCluster, YarnCluster,
     private String passWord;
     private IHDIStorageAccount defaultStorageAccount;
     private List<HDStorageAccount> additionalStorageAccounts;
-    private boolean isConfigInfoAvailable = false;
+    private volatile boolean isConfigInfoAvailable = false;
+    private volatile long configInfoLoadedAt = 0;
+    // the in-flight configuration request shared by all concurrent callers, null if there is none
+    private final AtomicReference<CompletableFuture<Void>> configInfoLoading = new AtomicReference<>();
     @Nullable
     private Map<String, String> coresiteMap = null;
 
@@ -262,60 +274,143 @@ public class ClusterDetail implements IClusterDetail, LivyCluster, YarnCluster,
     public void getConfigurationInfo() throws IOException, HDIException, AzureCmdException {
         // If exception happens, isConfigInfoAvailable is still false, which means
         // next time we call getConfigurationInfo(), load configuration codes will still be executed.
-        if (!isConfigInfoAvailable()) {
-            String userName = null;
-            String passWord = null;
-            Map<String, String> coresiteMap = null;
-            IHDIStorageAccount defaultStorageAccount = null;
-            List<HDStorageAccount> additionalStorageAccounts = null;
-
-            ClusterConfiguration clusterConfiguration =
-                    clusterOperation.getClusterConfiguration(subscription, clusterRawInfo.getId());
-            if (clusterConfiguration != null && clusterConfiguration.getConfigurations() != null) {
-                Configurations configurations = clusterConfiguration.getConfigurations();
-                Gateway gateway = configurations.getGateway();
-                if (gateway != null) {
-                    userName = gateway.getUsername();
-                    passWord = gateway.getPassword();
+        if (isConfigInfoAvailable()) {
+            if (isConfigInfoExpired()) {
+                // serve the cached configuration and refresh it proactively, only the caller winning the CAS does
+                final CompletableFuture<Void> refreshing = new CompletableFuture<>();
+                if (configInfoLoading.compareAndSet(null, refreshing)) {
+                    CompletableFuture.runAsync(() -> {
+                        try {
+                            loadConfigurationInfo(refreshing, true);
+                        } catch (Exception ex) {
+                            log().warn("Error refreshing cluster configuration info. Cluster Name: " + getName(), ex);
+                        }
+                    });
                 }
+            }
+            return;
+        }
+
+        loadConfigurationInfoSingleFlight();
+    }
+
+    private boolean isConfigInfoExpired() {
+        return System.currentTimeMillis() - configInfoLoadedAt > CONFIG_INFO_TTL_MS;
+    }
 
-                Map<String, String> coresSiteMap = configurations.getCoresite();
-                ClusterIdentity clusterIdentity = configurations.getClusterIdentity();
-                if (coresSiteMap != null) {
-                    coresiteMap = coresSiteMap;
-                    try {
-                        this.tempCoresiteMap = coresSiteMap;
-                        defaultStorageAccount = getDefaultStorageAccount(coresSiteMap, clusterIdentity);
-                    } catch (HDIException exp) {
-                        String errMsg = String.format("Encounter exception when getting storage configuration for cluster name:%s,type:%s,location:%s," +
-                                        "state:%s,version:%s,osType:%s,kind:%s,spark version:%s",
-                                clusterRawInfo.getName(),
-                                clusterRawInfo.getType(),
-                                clusterRawInfo.getLocation(),
-                                clusterRawInfo.getProperties().getClusterState(),
-                                clusterRawInfo.getProperties().getClusterVersion(),
-                                clusterRawInfo.getProperties().getOsType(),
-                                clusterRawInfo.getProperties().getClusterDefinition().getKind(),
-                                clusterRawInfo.getProperties().getClusterDefinition().getComponentVersion().getSpark());
-                        log().warn(errMsg, exp);
-                        throw new HDIException(errMsg, exp);
-                    }
-
-                    additionalStorageAccounts = getAdditionalStorageAccounts(coresSiteMap);
+    /**
+     * Issue at most one configuration request for this cluster at a time, concurrent callers wait for the in-flight one,
+     * interruptibly and for at most {@link #CONFIG_INFO_WAIT_TIMEOUT_MS}.
+     */
+    private void loadConfigurationInfoSingleFlight() throws IOException, HDIException, AzureCmdException {
+        while (true) {
+            final CompletableFuture<Void> loading = new CompletableFuture<>();
+            if (configInfoLoading.compareAndSet(null, loading)) {
+                loadConfigurationInfo(loading, false);
+                return;
+            }
+            final CompletableFuture<Void> inFlight = configInfoLoading.get();
+            if (inFlight == null) {
+                // the in-flight request just finished, try to win the CAS, the loaded configuration is re-checked then
+                continue;
+            }
+            try {
+                inFlight.get(CONFIG_INFO_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for configuration info of cluster " + getName());
+            } catch (TimeoutException ex) {
+                throw new IOException("Timed out waiting for configuration info of cluster " + getName(), ex);
+            } catch (ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof HDIException) {
+                    throw (HDIException) cause;
+                } else if (cause instanceof AzureCmdException) {
+                    throw (AzureCmdException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
                 }
+                throw new IOException(cause);
             }
+        }
+    }
 
-            synchronized (this) {
-                if (!isConfigInfoAvailable()) {
-                    this.userName = userName;
-                    this.passWord = passWord;
-                    this.coresiteMap = coresiteMap;
-                    this.defaultStorageAccount = defaultStorageAccount;
-                    this.additionalStorageAccounts = additionalStorageAccounts;
-                    isConfigInfoAvailable = true;
+    /**
+     * Load the configuration on behalf of {@code loading}, which must be the in-flight request set by the caller.
+     * @param refresh whether to refresh an expired configuration, or to load a missing one
+     */
+    private void loadConfigurationInfo(@NotNull CompletableFuture<Void> loading, boolean refresh)
+            throws IOException, HDIException, AzureCmdException {
+        try {
+            // another request may have finished between the caller's check and winning the CAS
+            final boolean upToDate = refresh ? isConfigInfoAvailable() && !isConfigInfoExpired() : isConfigInfoAvailable();
+            if (!upToDate) {
+                loadConfigurationInfo();
+            }
+            loading.complete(null);
+        } catch (IOException | HDIException | AzureCmdException | RuntimeException ex) {
+            loading.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            configInfoLoading.compareAndSet(loading, null);
+        }
+    }
+
+    private void loadConfigurationInfo() throws IOException, HDIException, AzureCmdException {
+        String userName = null;
+        String passWord = null;
+        Map<String, String> coresiteMap = null;
+        IHDIStorageAccount defaultStorageAccount = null;
+        List<HDStorageAccount> additionalStorageAccounts = null;
+
+        ClusterConfiguration clusterConfiguration =
+                clusterOperation.getClusterConfiguration(subscription, clusterRawInfo.getId());
+        if (clusterConfiguration != null && clusterConfiguration.getConfigurations() != null) {
+            Configurations configurations = clusterConfiguration.getConfigurations();
+            Gateway gateway = configurations.getGateway();
+            if (gateway != null) {
+                userName = gateway.getUsername();
+                passWord = gateway.getPassword();
+            }
+
+            Map<String, String> coresSiteMap = configurations.getCoresite();
+            ClusterIdentity clusterIdentity = configurations.getClusterIdentity();
+            if (coresSiteMap != null) {
+                coresiteMap = coresSiteMap;
+                try {
+                    this.tempCoresiteMap = coresSiteMap;
+                    defaultStorageAccount = getDefaultStorageAccount(coresSiteMap, clusterIdentity);
+                } catch (HDIException exp) {
+                    String errMsg = String.format("Encounter exception when getting storage configuration for cluster name:%s,type:%s,location:%s," +
+                                    "state:%s,version:%s,osType:%s,kind:%s,spark version:%s",
+                            clusterRawInfo.getName(),
+                            clusterRawInfo.getType(),
+                            clusterRawInfo.getLocation(),
+                            clusterRawInfo.getProperties().getClusterState(),
+                            clusterRawInfo.getProperties().getClusterVersion(),
+                            clusterRawInfo.getProperties().getOsType(),
+                            clusterRawInfo.getProperties().getClusterDefinition().getKind(),
+                            clusterRawInfo.getProperties().getClusterDefinition().getComponentVersion().getSpark());
+                    log().warn(errMsg, exp);
+                    throw new HDIException(errMsg, exp);
                 }
+
+                additionalStorageAccounts = getAdditionalStorageAccounts(coresSiteMap);
             }
         }
+
+        synchronized (this) {
+            this.userName = userName;
+            this.passWord = passWord;
+            this.coresiteMap = coresiteMap;
+            this.defaultStorageAccount = defaultStorageAccount;
+            this.additionalStorageAccounts = additionalStorageAccounts;
+            configInfoLoadedAt = System.currentTimeMillis();
+            isConfigInfoAvailable = true;
+        }
     }
 
     @Nullable
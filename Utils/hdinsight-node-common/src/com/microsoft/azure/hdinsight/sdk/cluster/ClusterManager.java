@@ -17,9 +17,12 @@ import com.microsoft.tooling.msservices.components.DefaultLoader;
 import org.apache.commons.lang3.StringUtils;
 import rx.Observable;
 import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class ClusterManager implements ILogger {
     // Singleton Instance
@@ -52,13 +55,64 @@ public class ClusterManager implements ILogger {
         return resultClusters;
     }
 
+    /**
+     * Clusters added to or removed from a subscription since the last listing.
+     */
+    public static class ClusterListDiff {
+        @NotNull
+        private final Subscription subscription;
+        @NotNull
+        private final List<ClusterDetail> added;
+        @NotNull
+        private final List<ClusterRawInfo> removed;
+
+        ClusterListDiff(@NotNull Subscription subscription, @NotNull List<ClusterDetail> added, @NotNull List<ClusterRawInfo> removed) {
+            this.subscription = subscription;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        @NotNull
+        public Subscription getSubscription() {
+            return subscription;
+        }
+
+        /**
+         * @return details of the added clusters with the specific cluster type
+         */
+        @NotNull
+        public List<ClusterDetail> getAdded() {
+            return added;
+        }
+
+        @NotNull
+        public List<ClusterRawInfo> getRemoved() {
+            return removed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    // subscriptions are listed concurrently, serialize the emissions
+    private final Subject<ClusterListDiff, ClusterListDiff> clusterListDiffs =
+            PublishSubject.<ClusterListDiff>create().toSerialized();
+
+    /**
+     * @return diffs of the cluster list of each subscription, emitted as each subscription's listing completes
+     */
+    public Observable<ClusterListDiff> getClusterListDiffs() {
+        return clusterListDiffs.asObservable();
+    }
+
     /**
      * get hdinsight detailed cluster info list with specific cluster type: Spark and RServer
      *
      * @param subscriptions
      * @return detailed cluster info list with specific cluster type
      */
-    public synchronized Observable<List<ClusterDetail>> getHDInsightClustersWithSpecificType(
+    public Observable<List<ClusterDetail>> getHDInsightClustersWithSpecificType(
             List<Subscription> subscriptions,
             String osType) {
         return Observable.from(subscriptions)
@@ -69,29 +123,16 @@ public class ClusterManager implements ILogger {
                                 .subscribeOn(Schedulers.io())
                                 // Remove duplicate clusters that share the same cluster name
                                 .map(this::deduplicateClusters)
-                                .flatMap(Observable::from)
-                                // Extract RServer and Spark Cluster with required OS type we need
-                                .filter(clusterRawInfo -> {
-                                    ClusterType rawClusterType = ClusterDetail.getType(clusterRawInfo);
-                                    String rawOsType = ClusterDetail.getOSType(clusterRawInfo);
-                                    return (rawClusterType.equals(ClusterType.rserver)
-                                            || rawClusterType.equals(ClusterType.spark))
-                                                && StringUtils.equalsIgnoreCase(rawOsType, osType);
-                                })
-                                .flatMap(clusterRawInfo -> {
-                                    ClusterOperationNewAPIImpl probeClusterNewApiOperation = new ClusterOperationNewAPIImpl(subscriptionDetail);
-                                    if (isHDInsightNewSDKEnabled()) {
-                                        return isProbeNewApiSucceed(probeClusterNewApiOperation, clusterRawInfo)
-                                                // Run the time-consuming probe job concurrently in IO thread
-                                                .subscribeOn(Schedulers.io())
-                                                .map(isProbeSucceed -> isProbeSucceed
-                                                        ? (isMfaEspCluster(clusterRawInfo)
-                                                            ? new MfaClusterDetail(subscriptionDetail, clusterRawInfo, probeClusterNewApiOperation)
-                                                            : new ClusterDetail(subscriptionDetail, clusterRawInfo, probeClusterNewApiOperation))
-                                                        : new ClusterDetail(subscriptionDetail, clusterRawInfo, new ClusterOperationImpl()));
-                                    } else {
-                                        return Observable.just(new ClusterDetail(subscriptionDetail, clusterRawInfo, new ClusterOperationImpl()));
-                                    }
+                                .flatMap(clusters -> {
+                                    final List<ClusterRawInfo> previous =
+                                            ClusterMetadataCache.getInstance().putClusters(subscriptionDetail.getId(), clusters);
+                                    return Observable.from(clusters)
+                                            // Extract RServer and Spark Cluster with required OS type we need
+                                            .filter(clusterRawInfo -> isSpecificType(clusterRawInfo, osType))
+                                            .flatMap(clusterRawInfo -> createClusterDetail(subscriptionDetail, clusterRawInfo))
+                                            .toList()
+                                            .doOnNext(details -> publishClusterListDiff(subscriptionDetail, previous, clusters, details))
+                                            .flatMap(Observable::from);
                                 })
                 )
                 .doOnNext(clusterDetail -> {
@@ -101,7 +142,98 @@ public class ClusterManager implements ILogger {
                             clusterDetail.getName());
                     log().info(debugMsg);
                 })
-                .toList();
+                .toList()
+                .doOnTerminate(() -> ClusterMetadataCache.getInstance().flush());
+    }
+
+    /**
+     * get the clusters known from the last listing, without any network call.
+     */
+    @NotNull
+    public List<ClusterDetail> getLastKnownHDInsightClustersWithSpecificType(List<Subscription> subscriptions, String osType) {
+        final List<ClusterDetail> clusters = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            ClusterMetadataCache.getInstance().getClusters(subscription.getId()).stream()
+                    .filter(clusterRawInfo -> isSpecificType(clusterRawInfo, osType))
+                    .map(clusterRawInfo -> {
+                        final ClusterOperationNewAPIImpl operation = new ClusterOperationNewAPIImpl(subscription);
+                        return ClusterMetadataCache.getInstance().getProbeResult(clusterRawInfo.getId())
+                                .filter(result -> isHDInsightNewSDKEnabled())
+                                .map(result -> toClusterDetail(subscription, clusterRawInfo, operation, result))
+                                .orElseGet(() -> new ClusterDetail(subscription, clusterRawInfo, new ClusterOperationImpl()));
+                    })
+                    .forEach(clusters::add);
+        }
+
+        return clusters;
+    }
+
+    private void publishClusterListDiff(@NotNull Subscription subscription,
+                                        @NotNull List<ClusterRawInfo> previous,
+                                        @NotNull List<ClusterRawInfo> current,
+                                        @NotNull List<ClusterDetail> currentDetails) {
+        final Set<String> previousIds = previous.stream().map(ClusterRawInfo::getId).collect(Collectors.toSet());
+        final Set<String> currentIds = current.stream().map(ClusterRawInfo::getId).collect(Collectors.toSet());
+        final ClusterListDiff diff = new ClusterListDiff(subscription,
+                currentDetails.stream().filter(cluster -> !previousIds.contains(cluster.getId())).collect(Collectors.toList()),
+                previous.stream().filter(cluster -> !currentIds.contains(cluster.getId())).collect(Collectors.toList()));
+        if (!diff.isEmpty()) {
+            clusterListDiffs.onNext(diff);
+        }
+    }
+
+    private static boolean isSpecificType(@NotNull ClusterRawInfo clusterRawInfo, String osType) {
+        ClusterType rawClusterType = ClusterDetail.getType(clusterRawInfo);
+        String rawOsType = ClusterDetail.getOSType(clusterRawInfo);
+        return (rawClusterType.equals(ClusterType.rserver)
+                || rawClusterType.equals(ClusterType.spark))
+                    && StringUtils.equalsIgnoreCase(rawOsType, osType);
+    }
+
+    private Observable<ClusterDetail> createClusterDetail(@NotNull Subscription subscription, @NotNull ClusterRawInfo clusterRawInfo) {
+        if (!isHDInsightNewSDKEnabled()) {
+            return Observable.just(new ClusterDetail(subscription, clusterRawInfo, new ClusterOperationImpl()));
+        }
+
+        ClusterOperationNewAPIImpl probeClusterNewApiOperation = new ClusterOperationNewAPIImpl(subscription);
+        final Optional<ClusterMetadataCache.ProbeResult> cachedResult =
+                ClusterMetadataCache.getInstance().getProbeResult(clusterRawInfo.getId());
+        if (cachedResult.isPresent()) {
+            return Observable.just(toClusterDetail(subscription, clusterRawInfo, probeClusterNewApiOperation, cachedResult.get()));
+        }
+
+        return isProbeNewApiSucceed(probeClusterNewApiOperation, clusterRawInfo)
+                // Run the time-consuming probe job concurrently in IO thread
+                .subscribeOn(Schedulers.io())
+                .map(isProbeSucceed -> {
+                    final ClusterMetadataCache.ProbeResult result = new ClusterMetadataCache.ProbeResult(
+                            isProbeSucceed,
+                            isProbeSucceed ? probeClusterNewApiOperation.getRoleType() : null,
+                            isProbeSucceed && isMfaEspCluster(clusterRawInfo));
+                    if (isProbeSucceed) {
+                        // a failed probe may be transient, don't lock the cluster into the old API for the cache TTL
+                        ClusterMetadataCache.getInstance().putProbeResult(clusterRawInfo.getId(), result);
+                    }
+                    return toClusterDetail(subscription, clusterRawInfo, probeClusterNewApiOperation, result);
+                });
+    }
+
+    @NotNull
+    private ClusterDetail toClusterDetail(@NotNull Subscription subscription,
+                                          @NotNull ClusterRawInfo clusterRawInfo,
+                                          @NotNull ClusterOperationNewAPIImpl probeClusterNewApiOperation,
+                                          @NotNull ClusterMetadataCache.ProbeResult result) {
+        if (!result.isProbeSucceed()) {
+            return new ClusterDetail(subscription, clusterRawInfo, new ClusterOperationImpl());
+        }
+
+        if (result.getRoleType() != null) {
+            probeClusterNewApiOperation.setRoleType(result.getRoleType());
+        }
+
+        return result.isMfaEsp()
+                ? new MfaClusterDetail(subscription, clusterRawInfo, probeClusterNewApiOperation)
+                : new ClusterDetail(subscription, clusterRawInfo, probeClusterNewApiOperation);
     }
 
     public boolean isHDInsightNewSDKEnabled() {
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.cluster;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.microsoft.azure.hdinsight.common.CommonConst;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.cluster.HDInsightNewAPI.HDInsightUserRoleType;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.tooling.msservices.components.DefaultLoader;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disk-backed (IDE application property) cache of the HDInsight clusters listed per subscription and of the
+ * per-cluster probe results, so that the last known clusters can be shown at IDE start and probes are not
+ * repeated on every refresh.
+ */
+public class ClusterMetadataCache implements ILogger {
+    private static final long PROBE_TTL_MS = TimeUnit.HOURS.toMillis(12);
+    private static volatile ClusterMetadataCache instance = null;
+
+    private final Gson gson = new Gson();
+    private Snapshot snapshot;
+    private boolean dirty = false;
+
+    public static class ProbeResult {
+        private boolean probeSucceed;
+        @Nullable
+        private HDInsightUserRoleType roleType;
+        private boolean mfaEsp;
+        private long probedAt;
+
+        public ProbeResult(boolean probeSucceed, @Nullable HDInsightUserRoleType roleType, boolean mfaEsp) {
+            this.probeSucceed = probeSucceed;
+            this.roleType = roleType;
+            this.mfaEsp = mfaEsp;
+            this.probedAt = System.currentTimeMillis();
+        }
+
+        public boolean isProbeSucceed() {
+            return probeSucceed;
+        }
+
+        @Nullable
+        public HDInsightUserRoleType getRoleType() {
+            return roleType;
+        }
+
+        public boolean isMfaEsp() {
+            return mfaEsp;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() - probedAt > PROBE_TTL_MS;
+        }
+    }
+
+    private static class Snapshot {
+        private Map<String, List<ClusterRawInfo>> clustersBySubscription = new HashMap<>();
+        private Map<String, ProbeResult> probeResults = new HashMap<>();
+    }
+
+    private ClusterMetadataCache() {
+    }
+
+    public static ClusterMetadataCache getInstance() {
+        if (instance == null) {
+            synchronized (ClusterMetadataCache.class) {
+                if (instance == null) {
+                    instance = new ClusterMetadataCache();
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    @NotNull
+    public synchronized List<ClusterRawInfo> getClusters(@NotNull String subscriptionId) {
+        return new ArrayList<>(load().clustersBySubscription.getOrDefault(subscriptionId, Collections.emptyList()));
+    }
+
+    /**
+     * replace the cached clusters of the subscription.
+     *
+     * @return the previously cached clusters of the subscription
+     */
+    @NotNull
+    public synchronized List<ClusterRawInfo> putClusters(@NotNull String subscriptionId, @NotNull List<ClusterRawInfo> clusters) {
+        final List<ClusterRawInfo> previous = load().clustersBySubscription.put(subscriptionId, new ArrayList<>(clusters));
+        dirty = true;
+        return previous == null ? Collections.emptyList() : previous;
+    }
+
+    /**
+     * @return the cached probe result of the cluster, empty if there is none or it is expired
+     */
+    public synchronized Optional<ProbeResult> getProbeResult(@NotNull String clusterId) {
+        return Optional.ofNullable(load().probeResults.get(clusterId)).filter(result -> !result.isExpired());
+    }
+
+    public synchronized void putProbeResult(@NotNull String clusterId, @NotNull ProbeResult result) {
+        load().probeResults.put(clusterId, result);
+        dirty = true;
+    }
+
+    public synchronized void clear() {
+        snapshot = new Snapshot();
+        dirty = true;
+        flush();
+    }
+
+    /**
+     * persist pending changes, called once a refresh completes rather than on every update.
+     */
+    public synchronized void flush() {
+        if (dirty && snapshot != null) {
+            DefaultLoader.getIdeHelper().setApplicationProperty(CommonConst.HDINSIGHT_CLUSTER_METADATA_CACHE, gson.toJson(snapshot));
+            dirty = false;
+        }
+    }
+
+    @NotNull
+    private Snapshot load() {
+        if (snapshot == null) {
+            snapshot = new Snapshot();
+            try {
+                final String json = DefaultLoader.getIdeHelper().getApplicationProperty(CommonConst.HDINSIGHT_CLUSTER_METADATA_CACHE);
+                if (StringUtils.isNotBlank(json)) {
+                    final Snapshot loaded = gson.fromJson(json, Snapshot.class);
+                    if (loaded != null && loaded.clustersBySubscription != null && loaded.probeResults != null) {
+                        snapshot = loaded;
+                    }
+                }
+            } catch (JsonSyntaxException ex) {
+                log().warn("Failed to load the HDInsight cluster metadata cache.", ex);
+            }
+        }
+
+        return snapshot;
+    }
+}
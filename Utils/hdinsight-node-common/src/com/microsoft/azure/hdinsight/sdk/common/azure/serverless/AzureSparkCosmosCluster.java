@@ -308,6 +308,9 @@ public class AzureSparkCosmosCluster extends SparkCluster
 
     private boolean isConfigInfoAvailable = false;
 
+    @Nullable
+    private AzureSparkResourcePoolStateTracker stateTracker;
+
     public AzureSparkCosmosCluster(@NotNull AzureSparkServerlessAccount azureSparkServerlessAccount, @NotNull String guid) {
         this.account = azureSparkServerlessAccount;
         this.guid = guid;
@@ -609,11 +612,29 @@ public class AzureSparkCosmosCluster extends SparkCluster
                 .patch(uri.toString(), entity, null, null, SparkResourcePool.class);
     }
 
+    /**
+     * Scale the workers, the request is queued until the resource pool is stable if it isn't
+     *
+     * @see AzureSparkResourcePoolStateTracker#requestUpdate(int)
+     */
     public Observable<AzureSparkCosmosCluster> update(int workerTargetInstanceCount) {
+        return getStateTracker().requestUpdate(workerTargetInstanceCount);
+    }
+
+    Observable<AzureSparkCosmosCluster> patch(int workerTargetInstanceCount) {
         return patchResourcePoolRequest(workerTargetInstanceCount)
                 .flatMap(resourcePoolResp -> this.get());
     }
 
+    @NotNull
+    public synchronized AzureSparkResourcePoolStateTracker getStateTracker() {
+        if (stateTracker == null) {
+            stateTracker = new AzureSparkResourcePoolStateTracker(this);
+        }
+
+        return stateTracker;
+    }
+
     private Observable<SparkResourcePool> getResourcePoolRequest() {
         URI uri = getUri();
 
@@ -701,7 +722,9 @@ public class AzureSparkCosmosCluster extends SparkCluster
         return prepareStorageFolder(this.sparkEventsPath)
                 .flatMap(resp -> createResourcePoolRequest())
                 .map(this::updateWithResponse)
-                .defaultIfEmpty(this);
+                .defaultIfEmpty(this)
+                // keep tracking the state in background until the new resource pool is stable
+                .doOnNext(cluster -> getStateTracker().track());
     }
 
     private Observable<SparkResourcePool> createResourcePoolRequest() {
@@ -35,12 +35,18 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.http.NameValuePair;
 import rx.Observable;
+import rx.schedulers.Schedulers;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static rx.Observable.concat;
 import static rx.Observable.empty;
@@ -75,15 +81,47 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
     @NotNull
     private AzureEnvironment azureEnv = CommonSettings.getAdEnvironment();
 
+    // Cached accounts are considered fresh within the TTL, see getCachedOrFetch()
+    private static final long ACCOUNTS_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    // Max concurrent requests at each discovery level (subscriptions, accounts, resource pools)
+    static final int MAX_CONCURRENT_REQUESTS = Integer.getInteger("hdinsight.serverless.discovery.parallelism", 8);
+
+    @NotNull
+    private volatile ImmutableSortedSet<? extends AzureSparkServerlessAccount> accounts = ImmutableSortedSet.of();
+
+    @NotNull
+    private volatile Map<String, AzureSparkServerlessAccount> accountsByName = Collections.emptyMap();
+
+    private volatile long accountsFetchedAt = 0;
+
+    // Bumped by invalidate(), a response of a request started before is discarded instead of overwriting the invalidation
+    private long accountsGeneration = 0;
+
     @NotNull
-    private ImmutableSortedSet<? extends AzureSparkServerlessAccount> accounts = ImmutableSortedSet.of();
+    private final Object accountsLock = new Object();
+
+    // The in-flight accounts request shared by concurrent callers of get()
+    @NotNull
+    private final AtomicReference<Observable<AzureSparkCosmosClusterManager>> accountsLoading = new AtomicReference<>();
 
     public AzureSparkCosmosClusterManager() {
         this.httpMap.put("common", new AzureHttpObservable(ApiVersion.VERSION));
 
         // Invalid cached accounts when signing out or changing subscription selection
-        AzureEventBus.once("account.logged_out.account", (t, e) -> accounts = ImmutableSortedSet.of());
-        AzureEventBus.on("account.subscription_changed.account", new AzureEventBus.EventListener(e -> accounts = ImmutableSortedSet.of()));
+        AzureEventBus.once("account.logged_out.account", (t, e) -> invalidate());
+        AzureEventBus.on("account.subscription_changed.account", new AzureEventBus.EventListener(e -> invalidate()));
+    }
+
+    private void invalidate() {
+        synchronized (accountsLock) {
+            accountsGeneration++;
+            accounts = ImmutableSortedSet.of();
+            accountsByName = Collections.emptyMap();
+            accountsFetchedAt = 0;
+        }
+        // don't share the in-flight request started before the invalidation with new callers
+        accountsLoading.set(null);
     }
 
     //
@@ -106,10 +144,7 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
 
     @Nullable
     public AzureSparkServerlessAccount getAccountByName(@NotNull String name) {
-        return getAccounts().stream()
-                .filter(account -> account.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return accountsByName.get(name);
     }
 
     /**
@@ -147,10 +182,43 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
         }
     }
 
+    /**
+     * Fetch accounts from service, concurrent callers share the same in-flight request
+     *
+     * @return Chained call result of this
+     */
     public Observable<AzureSparkCosmosClusterManager> get() {
-        return getAzureDataLakeAccountsRequest()
-                .map(this::updateWithResponse)
-                .defaultIfEmpty(this);
+        return Observable.defer(() -> {
+            final Observable<AzureSparkCosmosClusterManager> loading = accountsLoading.get();
+            if (loading != null) {
+                return loading;
+            }
+
+            final long generation;
+            synchronized (accountsLock) {
+                generation = accountsGeneration;
+            }
+            final AtomicReference<Observable<AzureSparkCosmosClusterManager>> self = new AtomicReference<>();
+            final Observable<AzureSparkCosmosClusterManager> request = getAzureDataLakeAccountsRequest()
+                    .map(response -> updateWithResponse(response, generation))
+                    .defaultIfEmpty(this)
+                    .doOnTerminate(() -> accountsLoading.compareAndSet(self.get(), null))
+                    .cache();
+            self.set(request);
+
+            return accountsLoading.compareAndSet(null, request) ? request : get();
+        });
+    }
+
+    /**
+     * Get the cached accounts if they are fetched within the TTL, or fetch them from service
+     *
+     * @return Chained call result of this
+     */
+    public Observable<AzureSparkCosmosClusterManager> getCachedOrFetch() {
+        return Observable.defer(() -> System.currentTimeMillis() - accountsFetchedAt < ACCOUNTS_CACHE_TTL_MS
+                ? Observable.just(this)
+                : get());
     }
 
     /**
@@ -162,17 +230,22 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
         return get()
                 .map(AzureSparkCosmosClusterManager::getAccounts)
                 .flatMap(Observable::from)
-                .flatMap(account -> account.get().onErrorReturn(err -> {
-                    log().warn(String.format("Can't get the account %s details: %s", account.getName(), err));
+                .flatMap(account -> account.get()
+                        .subscribeOn(Schedulers.io())
+                        .onErrorReturn(err -> {
+                            log().warn(String.format("Can't get the account %s details: %s", account.getName(), err));
 
-                    return account;
-                }))
+                            return account;
+                        }), MAX_CONCURRENT_REQUESTS)
                 .map(account -> account.getClusters())
                 .flatMap(Observable::from)
-                .flatMap(cluster -> ((AzureSparkCosmosCluster) cluster).get().onErrorReturn(err -> {
-                    log().warn(String.format("Can't get the cluster %s details: %s", cluster.getName(), err));
-                    return (AzureSparkCosmosCluster) cluster;
-                }))
+                .flatMap(cluster -> ((AzureSparkCosmosCluster) cluster).get()
+                        .subscribeOn(Schedulers.io())
+                        .onErrorReturn(err -> {
+                            log().warn(String.format("Can't get the cluster %s details: %s", cluster.getName(), err));
+                            return (AzureSparkCosmosCluster) cluster;
+                        }), MAX_CONCURRENT_REQUESTS)
+                .toList()
                 .map(clusters -> this)
                 .defaultIfEmpty(this);
     }
@@ -201,7 +274,8 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
                                         getAccountFilter(),
                                         null,
                                         // TODO!!! Needs to support paging
-                                        GetAccountsListResponse.class)))
+                                        GetAccountsListResponse.class)
+                                .subscribeOn(Schedulers.io())))
                 // account basic list -> account basic
                 .flatMap(subAccountsObPair -> subAccountsObPair.getRight()
                                 .onErrorResumeNext(err -> {
@@ -213,7 +287,7 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
                                     return empty();
                                 })
                                 .flatMap(accountsResp -> Observable.from(accountsResp.items()))
-                                .map(accountBasic -> Pair.of(subAccountsObPair.getLeft(), accountBasic)))
+                                .map(accountBasic -> Pair.of(subAccountsObPair.getLeft(), accountBasic)), MAX_CONCURRENT_REQUESTS)
                 .flatMap(subAccountBasicPair -> {
                     // accountBasic.id is the account detail absolute URI path
                     URI accountDetailUri = getResourceManagerEndpoint().resolve(subAccountBasicPair.getRight().id());
@@ -222,6 +296,7 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
                     return getHttp(subAccountBasicPair.getLeft())
                             .withUuidUserAgent()
                             .get(accountDetailUri.toString(), null, null, DataLakeAnalyticsAccount.class)
+                            .subscribeOn(Schedulers.io())
                             .onErrorResumeNext(err -> {
                                 log().warn("Failed to get the account detail: " + accountDetailUri, err);
 
@@ -229,7 +304,7 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
                             })
                             .map(accountDetail -> Triple.of(
                                     subAccountBasicPair.getLeft(), subAccountBasicPair.getRight(), accountDetail));
-                })
+                }, MAX_CONCURRENT_REQUESTS)
                 .toList()
                 .doOnNext(triples -> log().debug("Triple(Subscription, AccountBasic, AccountDetails) list: " + triples.toString()));
     }
@@ -260,8 +335,9 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
 
     @NotNull
     private AzureSparkCosmosClusterManager updateWithResponse(
-            List<Triple<Subscription, DataLakeAnalyticsAccountBasic, DataLakeAnalyticsAccount>> accountsResponse) {
-        accounts = ImmutableSortedSet.copyOf(accountsResponse
+            List<Triple<Subscription, DataLakeAnalyticsAccountBasic, DataLakeAnalyticsAccount>> accountsResponse,
+            long generation) {
+        final ImmutableSortedSet<AzureSparkServerlessAccount> fetched = ImmutableSortedSet.copyOf(accountsResponse
                 .stream()
                 .map(subAccountBasicDetailTriple ->     // Triple: subscription, accountBasic, accountDetail
                         new AzureSparkServerlessAccount(
@@ -273,21 +349,50 @@ public class AzureSparkCosmosClusterManager implements ClusterContainer,
                                 .setDetailResponse(subAccountBasicDetailTriple.getRight()))
                 .iterator());
 
+        synchronized (accountsLock) {
+            if (generation != accountsGeneration) {
+                // invalidated while the request was in flight, the response may be of the signed out account or
+                // unselected subscriptions
+                return this;
+            }
+
+            accountsByName = fetched.stream().collect(Collectors.toMap(
+                    AzureSparkServerlessAccount::getName, Function.identity(), (first, second) -> first));
+            accounts = fetched;
+            accountsFetchedAt = System.currentTimeMillis();
+        }
+
         return this;
     }
 
+    /**
+     * Find the cluster from the cached accounts and resource pools index, and only ask service for the account (or its
+     * resource pools) when it's not cached
+     */
     public Observable<? extends AzureSparkCosmosCluster> findCluster(@NotNull String accountName, @NotNull String clusterGuid) {
-        return concat(from(getAccounts()), get().flatMap(manager -> from(manager.getAccounts())))
-                .filter(account -> account.getName().equals(accountName))
-                .first()
-                .flatMap(account -> concat(from(account.getClusters()), account.get().flatMap(acct -> from(acct.getClusters()))))
-                .map(AzureSparkCosmosCluster.class::cast)
-                .filter(cluster -> cluster.getGuid().equals(clusterGuid))
-                .first();
+        return Observable.defer(() -> {
+            final AzureSparkServerlessAccount cachedAccount = getAccountByName(accountName);
+            final AzureSparkCosmosCluster cachedCluster = cachedAccount == null ? null : cachedAccount.getClusterByGuid(clusterGuid);
+            if (cachedCluster != null && cachedCluster.isRunning()) {
+                return Observable.just(cachedCluster);
+            }
+
+            final Observable<AzureSparkServerlessAccount> account = cachedAccount != null
+                    ? Observable.just(cachedAccount)
+                    : get().map(manager -> manager.getAccountByName(accountName)).filter(Objects::nonNull);
+
+            // the cached resource pools don't have a running one with the GUID, so ask service for the current ones
+            return account
+                    .first()
+                    .flatMap(acct -> acct.get().flatMap(refreshed -> from(refreshed.getClusters())))
+                    .map(AzureSparkCosmosCluster.class::cast)
+                    .filter(cluster -> cluster.getGuid().equals(clusterGuid))
+                    .first();
+        });
     }
 
     public Observable<Boolean> isFeatureEnabled() {
-        return concat(from(getAccounts()), get().flatMap(manager -> from(manager.getAccounts())))
+        return concat(from(getAccounts()), getCachedOrFetch().flatMap(manager -> from(manager.getAccounts())))
                 .isEmpty()
                 .map(isEmpty -> !isEmpty)
                 .onErrorReturn(err -> {
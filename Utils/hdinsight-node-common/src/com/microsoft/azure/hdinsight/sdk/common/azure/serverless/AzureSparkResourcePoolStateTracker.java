@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.azure.serverless;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+import rx.subjects.AsyncSubject;
+import rx.subjects.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the state of a Spark resource pool with a single polling loop shared by all subscribers.
+ *
+ * The pool is polled while anyone subscribes to the state transitions, while scale requests are queued, or while the
+ * pool is transitioning (running but not stable). The polling interval starts at {@link #MIN_POLL_INTERVAL_MS} and
+ * backs off to {@link #MAX_POLL_INTERVAL_MS} as long as the state doesn't change.
+ *
+ * Scale requests issued while the pool is not stable are queued (the latest worker count wins) and applied once the
+ * pool becomes stable, instead of being rejected. Waiting for a queued request is bounded by
+ * {@link #QUEUED_UPDATE_TIMEOUT_MS}, the queued request is dropped once all its waiters time out or unsubscribe.
+ */
+public class AzureSparkResourcePoolStateTracker implements ILogger {
+    private static final long MIN_POLL_INTERVAL_MS = 2000;
+    private static final long MAX_POLL_INTERVAL_MS = 30000;
+    private static final double BACKOFF_FACTOR = 1.5;
+    private static final long QUEUED_UPDATE_TIMEOUT_MS = 5 * 60 * 1000;
+
+    public static class StateTransition {
+        @NotNull
+        private final AzureSparkCosmosCluster cluster;
+        @Nullable
+        private final String from;
+        @NotNull
+        private final String to;
+
+        StateTransition(@NotNull AzureSparkCosmosCluster cluster, @Nullable String from, @NotNull String to) {
+            this.cluster = cluster;
+            this.from = from;
+            this.to = to;
+        }
+
+        @NotNull
+        public AzureSparkCosmosCluster getCluster() {
+            return cluster;
+        }
+
+        /**
+         * @return the previous state, null for the first state observed
+         */
+        @Nullable
+        public String getFrom() {
+            return from;
+        }
+
+        @NotNull
+        public String getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s -> %s", cluster.getName(), from, to);
+        }
+    }
+
+    @NotNull
+    private final AzureSparkCosmosCluster cluster;
+
+    @NotNull
+    private final Scheduler scheduler;
+
+    @NotNull
+    private final PublishSubject<StateTransition> transitions = PublishSubject.create();
+
+    @NotNull
+    private final List<AsyncSubject<AzureSparkCosmosCluster>> pendingUpdateWaiters = new ArrayList<>();
+
+    @Nullable
+    private Integer pendingWorkerTargetInstanceCount;
+
+    private int subscriberCount = 0;
+
+    @Nullable
+    private Scheduler.Worker worker;
+
+    private long pollIntervalMs = MIN_POLL_INTERVAL_MS;
+
+    @Nullable
+    private String lastState;
+
+    AzureSparkResourcePoolStateTracker(@NotNull AzureSparkCosmosCluster cluster) {
+        this(cluster, Schedulers.io());
+    }
+
+    AzureSparkResourcePoolStateTracker(@NotNull AzureSparkCosmosCluster cluster, @NotNull Scheduler scheduler) {
+        this.cluster = cluster;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Subscribing starts the shared polling loop, which stops once there is no subscriber and nothing else to wait for
+     *
+     * @return the state transitions of the resource pool
+     */
+    @NotNull
+    public Observable<StateTransition> getStateTransitions() {
+        return transitions.asObservable()
+                .doOnSubscribe(this::onSubscribe)
+                .doOnUnsubscribe(this::onUnsubscribe);
+    }
+
+    /**
+     * Start polling right now if not yet, and reset the backoff
+     */
+    public synchronized void track() {
+        pollIntervalMs = MIN_POLL_INTERVAL_MS;
+
+        if (worker == null) {
+            worker = scheduler.createWorker();
+            worker.schedule(this::poll);
+        }
+    }
+
+    /**
+     * Scale the workers of the resource pool. It's applied immediately if the pool is stable, otherwise it's queued
+     * until the pool becomes stable, a later request supersedes the queued one.
+     *
+     * @param workerTargetInstanceCount the target worker instance count
+     * @return the updated cluster, emitted after the request is applied. It fails with
+     *         {@link AzureSparkResourcePoolNotReadyException} if a queued request isn't applied in
+     *         {@link #QUEUED_UPDATE_TIMEOUT_MS}. Unsubscribing or timing out cancels the queued request, unless
+     *         another caller still waits for it.
+     */
+    @NotNull
+    public Observable<AzureSparkCosmosCluster> requestUpdate(int workerTargetInstanceCount) {
+        return Observable.defer(() -> {
+            if (cluster.isStable() && cluster.getWorkerState() != null) {
+                return cluster.patch(workerTargetInstanceCount)
+                        .doOnCompleted(this::track);
+            }
+
+            final AsyncSubject<AzureSparkCosmosCluster> result = AsyncSubject.create();
+            synchronized (this) {
+                pendingWorkerTargetInstanceCount = workerTargetInstanceCount;
+                pendingUpdateWaiters.add(result);
+            }
+
+            log().info(String.format("Spark resource pool %s is not stable yet, scaling to %d workers is queued",
+                    cluster.getName(), workerTargetInstanceCount));
+            track();
+
+            return result
+                    .doOnUnsubscribe(() -> removeWaiter(result))
+                    .timeout(QUEUED_UPDATE_TIMEOUT_MS, TimeUnit.MILLISECONDS, Observable.error(
+                            new AzureSparkResourcePoolNotReadyException(String.format(
+                                    "Spark resource pool %s is not stable after %d seconds, scaling to %d workers is "
+                                            + "cancelled.",
+                                    cluster.getName(),
+                                    TimeUnit.MILLISECONDS.toSeconds(QUEUED_UPDATE_TIMEOUT_MS),
+                                    workerTargetInstanceCount)), scheduler);
+        });
+    }
+
+    public synchronized boolean hasPendingUpdate() {
+        return pendingWorkerTargetInstanceCount != null;
+    }
+
+    private synchronized void removeWaiter(@NotNull AsyncSubject<AzureSparkCosmosCluster> waiter) {
+        // a waiter of an already applied request isn't in the list anymore, and must not cancel a newer request
+        if (pendingUpdateWaiters.remove(waiter) && pendingUpdateWaiters.isEmpty()) {
+            pendingWorkerTargetInstanceCount = null;
+        }
+    }
+
+    private synchronized void onSubscribe() {
+        subscriberCount++;
+        track();
+    }
+
+    private synchronized void onUnsubscribe() {
+        subscriberCount--;
+    }
+
+    private void poll() {
+        cluster.get().lastOrDefault(null).subscribe(
+                polled -> {
+                    if (polled == null) {
+                        log().warn(String.format("Got nothing when polling Spark resource pool %s state", cluster.getName()));
+                        scheduleNextPoll(false);
+                    } else {
+                        onPolled(polled);
+                    }
+                },
+                err -> {
+                    log().warn(String.format("Failed to poll Spark resource pool %s state: %s", cluster.getName(), err));
+                    scheduleNextPoll(false);
+                });
+    }
+
+    private void onPolled(@NotNull AzureSparkCosmosCluster polled) {
+        final String state = describeState(polled);
+        final String previous;
+        synchronized (this) {
+            previous = lastState;
+            lastState = state;
+        }
+
+        final boolean isChanged = !Objects.equals(previous, state);
+        if (isChanged) {
+            transitions.onNext(new StateTransition(polled, previous, state));
+        }
+
+        if (!polled.isRunning()) {
+            failPendingUpdates(new AzureSparkResourcePoolNotReadyException(String.format(
+                    "Spark resource pool %s is %s and can't be updated.", polled.getName(), polled.getState())));
+        } else if (polled.isStable() && hasPendingUpdate()) {
+            applyPendingUpdate();
+        }
+
+        scheduleNextPoll(isChanged);
+    }
+
+    private synchronized void scheduleNextPoll(boolean isStateChanged) {
+        if (worker == null) {
+            return;
+        }
+
+        final boolean isTransitioning = cluster.isRunning() && !cluster.isStable();
+        if (!cluster.isRunning() || (subscriberCount <= 0 && pendingWorkerTargetInstanceCount == null && !isTransitioning)) {
+            worker.unsubscribe();
+            worker = null;
+
+            return;
+        }
+
+        pollIntervalMs = isStateChanged
+                ? MIN_POLL_INTERVAL_MS
+                : Math.min(MAX_POLL_INTERVAL_MS, (long) (pollIntervalMs * BACKOFF_FACTOR));
+        worker.schedule(this::poll, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void applyPendingUpdate() {
+        final Integer workerTargetInstanceCount;
+        final List<AsyncSubject<AzureSparkCosmosCluster>> waiters;
+        synchronized (this) {
+            workerTargetInstanceCount = pendingWorkerTargetInstanceCount;
+            waiters = new ArrayList<>(pendingUpdateWaiters);
+            pendingWorkerTargetInstanceCount = null;
+            pendingUpdateWaiters.clear();
+        }
+
+        if (workerTargetInstanceCount == null) {
+            return;
+        }
+
+        cluster.patch(workerTargetInstanceCount).subscribe(
+                updated -> waiters.forEach(waiter -> waiter.onNext(updated)),
+                err -> waiters.forEach(waiter -> waiter.onError(err)),
+                () -> waiters.forEach(AsyncSubject::onCompleted));
+    }
+
+    private void failPendingUpdates(@NotNull Throwable err) {
+        final List<AsyncSubject<AzureSparkCosmosCluster>> waiters;
+        synchronized (this) {
+            waiters = new ArrayList<>(pendingUpdateWaiters);
+            pendingWorkerTargetInstanceCount = null;
+            pendingUpdateWaiters.clear();
+        }
+
+        waiters.forEach(waiter -> waiter.onError(err));
+    }
+
+    @NotNull
+    private static String describeState(@NotNull AzureSparkCosmosCluster cluster) {
+        return String.format("%s (worker: %s, %d/%d running)",
+                cluster.getClusterStateForShow(),
+                cluster.getWorkerState(),
+                cluster.getWorkerRunningInstanceCount(),
+                cluster.getWorkerTargetInstanceCount());
+    }
+}
@@ -37,6 +37,10 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.microsoft.azure.hdinsight.sdk.rest.azure.datalake.analytics.job.models.ApiVersion.VERSION;
 
@@ -49,6 +53,9 @@ public class AzureSparkServerlessAccount implements IClusterDetail, ClusterConta
 
     private static final String REST_SEGMENT_JOB_MANAGEMENT_SUFFIX = "/jobManagement";
 
+    // Cached resource pools are considered fresh within the TTL, see getCachedOrFetch()
+    private static final long RESOURCE_POOLS_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
     @NotNull
     private final Subscription subscription;
 
@@ -68,7 +75,13 @@ public class AzureSparkServerlessAccount implements IClusterDetail, ClusterConta
     private String id;
 
     @NotNull
-    private ImmutableSortedSet<? extends IClusterDetail> clusters = ImmutableSortedSet.of();
+    private volatile ImmutableSortedSet<? extends IClusterDetail> clusters = ImmutableSortedSet.of();
+
+    // Resource pools indexed by GUID, updated along with clusters
+    @NotNull
+    private volatile Map<String, AzureSparkCosmosCluster> clustersByGuid = Collections.emptyMap();
+
+    private volatile long resourcePoolsFetchedAt = 0;
 
     @NotNull
     private String name;
@@ -240,6 +253,18 @@ public class AzureSparkServerlessAccount implements IClusterDetail, ClusterConta
                 .defaultIfEmpty(this);
     }
 
+    /**
+     * Get the cached resource pools if they are fetched within the TTL, or fetch them from service
+     *
+     * @return Chained call result of this
+     */
+    @NotNull
+    public Observable<AzureSparkServerlessAccount> getCachedOrFetch() {
+        return Observable.defer(() -> System.currentTimeMillis() - resourcePoolsFetchedAt < RESOURCE_POOLS_CACHE_TTL_MS
+                ? Observable.just(this)
+                : get());
+    }
+
     private Observable<SparkResourcePoolList> getResourcePoolsRequest() {
         URI url = getUri().resolve(REST_SEGMENT_SPARK_RESOURCEPOOLS);
 
@@ -249,14 +274,28 @@ public class AzureSparkServerlessAccount implements IClusterDetail, ClusterConta
     }
 
     private AzureSparkServerlessAccount updateWithResponse(SparkResourcePoolList sparkResourcePoolList) {
-        clusters = ImmutableSortedSet.copyOf(sparkResourcePoolList.value().stream()
+        final ImmutableSortedSet<AzureSparkCosmosCluster> fetched = ImmutableSortedSet.copyOf(sparkResourcePoolList.value().stream()
                 .map(analyticsActivity -> new AzureSparkCosmosCluster(this, analyticsActivity.id().toString())
                         .updateWithAnalyticsActivity(analyticsActivity))
                 .iterator());
 
+        clustersByGuid = fetched.stream().collect(Collectors.toMap(
+                AzureSparkCosmosCluster::getGuid, Function.identity(), (first, second) -> first));
+        clusters = fetched;
+        resourcePoolsFetchedAt = System.currentTimeMillis();
+
         return this;
     }
 
+    /**
+     * Get the cached resource pool by GUID, non-block
+     * @return the cached resource pool, or null if it's not fetched yet
+     */
+    @Nullable
+    public AzureSparkCosmosCluster getClusterByGuid(@NotNull String guid) {
+        return clustersByGuid.get(guid);
+    }
+
     /**
      * Get clusters with "Ended" and "Finalizing" state filtered
      * @return cluster set with "Ended" and "Ending" state filtered
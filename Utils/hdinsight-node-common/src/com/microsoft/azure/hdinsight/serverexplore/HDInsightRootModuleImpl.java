@@ -8,10 +8,15 @@ package com.microsoft.azure.hdinsight.serverexplore;
 import com.microsoft.azure.hdinsight.common.ClusterManagerEx;
 import com.microsoft.azure.hdinsight.common.CommonConst;
 import com.microsoft.azure.hdinsight.common.IconPathBuilder;
+import com.microsoft.azure.hdinsight.sdk.cluster.ClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.cluster.ClusterManager;
+import com.microsoft.azure.hdinsight.sdk.cluster.ClusterRawInfo;
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.serverexplore.hdinsightnode.ClusterNode;
 import com.microsoft.azure.hdinsight.serverexplore.hdinsightnode.HDInsightRootModule;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcon;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azuretools.azurecommons.helpers.AzureCmdException;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
@@ -19,8 +24,15 @@ import com.microsoft.azuretools.telemetry.AppInsightsClient;
 import com.microsoft.azuretools.telemetry.TelemetryConstants;
 import com.microsoft.azuretools.telemetrywrapper.EventType;
 import com.microsoft.azuretools.telemetrywrapper.EventUtil;
+import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.microsoft.tooling.msservices.serviceexplorer.Node;
 import com.microsoft.tooling.msservices.serviceexplorer.NodeActionEvent;
+import rx.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class HDInsightRootModuleImpl extends HDInsightRootModule {
     private static final String HDINSIGHT_NODE_EXPAND = "HDInsightExplorer.HDInsightNodeExpand";
@@ -57,7 +69,41 @@ public class HDInsightRootModuleImpl extends HDInsightRootModule {
     @Override
     protected void refreshItems() throws AzureCmdException {
         synchronized (this) {
-            ClusterManagerEx.getInstance().getCachedClusters().stream()
+            final ClusterManagerEx manager = ClusterManagerEx.getInstance();
+            List<IClusterDetail> clusters = manager.getCachedClusters();
+            if (!manager.isListClusterSuccess() && clusters.isEmpty()) {
+                // initial render with the clusters known from the last session, then always fetch the current ones
+                clusters = manager.getLastKnownClusters();
+                if (!clusters.isEmpty()) {
+                    AzureTaskManager.getInstance().runOnPooledThread(() -> {
+                        // update the rendered nodes per subscription as its listing completes, instead of a full reload
+                        final Subscription diffs = ClusterManager.getInstance().getClusterListDiffs()
+                                .subscribe(diff -> DefaultLoader.getIdeHelper().invokeLater(() -> applyClusterListDiff(diff)));
+                        try {
+                            manager.getClusterDetails();
+                        } finally {
+                            diffs.unsubscribe();
+                        }
+                    });
+                }
+            }
+            clusters.stream()
+                    .filter(manager.getHDInsightClusterFilterPredicate())
+                    .forEach(cluster -> addChildNode(new ClusterNode(this, cluster)));
+        }
+    }
+
+    private void applyClusterListDiff(@NotNull ClusterManager.ClusterListDiff diff) {
+        synchronized (this) {
+            final Set<String> removedIds = diff.getRemoved().stream().map(ClusterRawInfo::getId).collect(Collectors.toSet());
+            new ArrayList<>(getChildNodes()).stream()
+                    .filter(node -> node instanceof ClusterNode)
+                    .filter(node -> {
+                        final IClusterDetail cluster = ((ClusterNode) node).getClusterDetail();
+                        return cluster instanceof ClusterDetail && removedIds.contains(((ClusterDetail) cluster).getId());
+                    })
+                    .forEach(this::removeDirectChildNode);
+            diff.getAdded().stream()
                     .filter(ClusterManagerEx.getInstance().getHDInsightClusterFilterPredicate())
                     .forEach(cluster -> addChildNode(new ClusterNode(this, cluster)));
         }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import com.google.gson.Gson;
+import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tails the log of a Livy batch incrementally ({@code /batches/{id}/log?from=&size=}) instead of fetching the full log
+ * every time. The batch state is only requested when the log stops growing, the polling interval is reset to
+ * {@link #MIN_INTERVAL_MS} whenever new lines arrive and backs off up to {@link #MAX_INTERVAL_MS} otherwise.
+ * Lines fetched by one request are delivered to the listener as a single batch, and {@link #cancel()} stops tailing
+ * immediately, even in the middle of a wait.
+ */
+public class LivyLogTailer {
+    public static final long MIN_INTERVAL_MS = 1000;
+    public static final long MAX_INTERVAL_MS = 5000;
+    private static final double BACKOFF_FACTOR = 1.5;
+    private static final int PAGE_SIZE = 500;
+    private static final Set<String> FINAL_STATES = new HashSet<>(List.of("error", "success", "dead", "killed"));
+    private static final Gson GSON = new Gson();
+
+    public interface Listener {
+        /**
+         * @param lines new log lines, in order, fetched by one request
+         */
+        void onLog(@NotNull List<String> lines);
+    }
+
+    @NotNull
+    private final SparkBatchSubmission submission;
+    @NotNull
+    private final String batchesUrl;
+    private final int batchId;
+    @NotNull
+    private final Listener listener;
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final AtomicInteger requestCount = new AtomicInteger(0);
+    private int fromIndex = 0;
+    private int total = 0;
+
+    /**
+     * @param batchesUrl the Livy batches url, e.g. {@code https://cluster/livy/batches}
+     */
+    public LivyLogTailer(@NotNull SparkBatchSubmission submission, @NotNull String batchesUrl, int batchId,
+                         @NotNull Listener listener) {
+        this.submission = submission;
+        this.batchesUrl = batchesUrl;
+        this.batchId = batchId;
+        this.listener = listener;
+    }
+
+    /**
+     * Tail the log till the batch ends or {@link #cancel()} is called.
+     *
+     * @return the final state of the batch (lower-cased), or null if cancelled
+     */
+    @Nullable
+    public String tail() throws IOException, InterruptedException {
+        long interval = MIN_INTERVAL_MS;
+        while (!isCancelled()) {
+            final int fetched = fetchLog();
+            if (fetched > 0) {
+                interval = MIN_INTERVAL_MS;
+                if (fromIndex < total) {
+                    continue; // more lines are pending, fetch them right now
+                }
+            } else {
+                final String state = fetchState();
+                if (FINAL_STATES.contains(state)) {
+                    // lines written between the last log request and the state request
+                    int drained;
+                    do {
+                        drained = fetchLog();
+                    } while (!isCancelled() && drained > 0 && fromIndex < total);
+                    return isCancelled() ? null : state;
+                }
+                interval = Math.min(MAX_INTERVAL_MS, (long) (interval * BACKOFF_FACTOR));
+            }
+            if (cancelled.await(interval, TimeUnit.MILLISECONDS)) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    public void cancel() {
+        cancelled.countDown();
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * @return the number of HTTP requests issued so far
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    private int fetchLog() throws IOException {
+        final String url = String.format("%s/%d/log?from=%d&size=%d", batchesUrl, batchId, fromIndex, PAGE_SIZE);
+        final SparkJobLog jobLog = GSON.fromJson(get(url).getMessage(), SparkJobLog.class);
+        final List<String> lines = jobLog == null || jobLog.getLog() == null ? Collections.emptyList() : jobLog.getLog();
+        if (jobLog != null) {
+            total = jobLog.getTotal();
+        }
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        fromIndex += lines.size();
+        listener.onLog(lines);
+        return lines.size();
+    }
+
+    @NotNull
+    private String fetchState() throws IOException {
+        requestCount.incrementAndGet();
+        final HttpResponse response = submission.getBatchSparkJobStatus(batchesUrl, batchId);
+        checkResponse(response);
+        final SparkSubmitResponse status = GSON.fromJson(response.getMessage(), SparkSubmitResponse.class);
+        return status == null || status.getState() == null ? "" : status.getState().toLowerCase(Locale.ROOT);
+    }
+
+    @NotNull
+    private HttpResponse get(@NotNull String url) throws IOException {
+        requestCount.incrementAndGet();
+        final HttpResponse response = submission.getHttpResponseViaGet(url);
+        checkResponse(response);
+        return response;
+    }
+
+    private void checkResponse(@NotNull HttpResponse response) throws IOException {
+        if (response.getCode() >= 300) {
+            throw new IOException(String.format("Failed to get Livy batch %d: %d %s", batchId, response.getCode(), response.getMessage()));
+        }
+    }
+}